@@ -0,0 +1,96 @@
+package com.community.batch.benchmark;
+
+import com.community.batch.BatchApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크 공용 상태
+ * 내장 H2로 애플리케이션 컨텍스트를 띄우고 users 개수만큼 휴면 대상 회원을 JDBC 배치 insert로 넣는다.
+ * 배치 Job은 자동 실행하지 않는다.
+ */
+@State(Scope.Benchmark)
+public class InactiveUserBenchmarkContext {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String[] GRADES = {"VIP", "GOLD", "FAMILY"};
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BatchApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.batch.job.enabled=false",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.type.descriptor.sql=warn")
+                .run();
+        seed(context.getBean(JdbcTemplate.class), users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * 모든 회원을 다시 휴면 전환 대상(ACTIVE)으로 되돌린다.
+     */
+    public void resetToActive() {
+        getBean(JdbcTemplate.class).update("update user set status = 'ACTIVE', updated_date = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int users) {
+        jdbcTemplate.update("delete from user");
+        Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now().minusYears(3));
+        Timestamp updatedDate = Timestamp.valueOf(LocalDateTime.now().minusYears(2));
+        for (int from = 1; from <= users; from += INSERT_BATCH_SIZE) {
+            int start = from;
+            int size = Math.min(INSERT_BATCH_SIZE, users - from + 1);
+            jdbcTemplate.batchUpdate("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                    " values (?, ?, ?, ?, 'FACEBOOK', 'ACTIVE', ?, ?, ?)", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long id = start + i;
+                    ps.setLong(1, id);
+                    ps.setString(2, "user" + id + "@test.com");
+                    ps.setString(3, "user" + id);
+                    ps.setString(4, "password" + id);
+                    ps.setString(5, GRADES[(int) (id % GRADES.length)]);
+                    ps.setTimestamp(6, createdDate);
+                    ps.setTimestamp(7, updatedDate);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.community.batch.benchmark;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.InactiveUserJobConfig;
+import com.community.batch.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * inactiveUserProcessor 단독 처리 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InactiveUserProcessorBenchmark {
+
+    private ItemProcessor<User, User> processor;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp(InactiveUserBenchmarkContext context) {
+        processor = context.getBean(InactiveUserJobConfig.class).inactiveUserProcessor();
+        users = context.getBean(UserRepository.class)
+                .findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public void processAll(ItemCounter counter, Blackhole blackhole) throws Exception {
+        for (User user : users) {
+            blackhole.consume(processor.process(user));
+            counter.items++;
+        }
+    }
+}
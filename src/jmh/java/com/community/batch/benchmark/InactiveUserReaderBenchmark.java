@@ -0,0 +1,100 @@
+package com.community.batch.benchmark;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.readers.JpaKeysetPagingItemReader;
+import com.community.batch.jobs.readers.QueueItemReader;
+import com.community.batch.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.support.ListItemReader;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 휴면 대상 전체를 한번 읽는 비용을 Reader 구현체와 페이지(청크) 크기별로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InactiveUserReaderBenchmark {
+
+    @Param({"LIST", "QUEUE", "JPA_PAGING", "KEYSET"})
+    public String readerType;
+
+    @Param({"15", "100", "1000"})
+    public int chunkSize;
+
+    @Benchmark
+    public void readAll(InactiveUserBenchmarkContext context, ItemCounter counter, Blackhole blackhole) throws Exception {
+        ItemReader<User> reader = createReader(context);
+        if (reader instanceof ItemStream) {
+            ((ItemStream) reader).open(new ExecutionContext());
+        }
+        User user;
+        while ((user = reader.read()) != null) {
+            blackhole.consume(user);
+            counter.items++;
+        }
+        if (reader instanceof ItemStream) {
+            ((ItemStream) reader).close();
+        }
+    }
+
+    private ItemReader<User> createReader(InactiveUserBenchmarkContext context) throws Exception {
+        LocalDateTime updatedDate = LocalDateTime.now().minusYears(1);
+        switch (readerType) {
+            case "LIST":
+                return new ListItemReader<>(context.getBean(UserRepository.class)
+                        .findByUpdatedDateBeforeAndStatusEquals(updatedDate, UserStatus.ACTIVE));
+            case "QUEUE":
+                return new QueueItemReader<>(context.getBean(UserRepository.class)
+                        .findByUpdatedDateBeforeAndStatusEquals(updatedDate, UserStatus.ACTIVE));
+            case "JPA_PAGING":
+                JpaPagingItemReader<User> jpaPagingItemReader = new JpaPagingItemReader<>();
+                jpaPagingItemReader.setQueryString("select u from User u where u.updatedDate < :updatedDate and u.status = :status order by u.id");
+                jpaPagingItemReader.setParameterValues(parameters(updatedDate));
+                jpaPagingItemReader.setEntityManagerFactory(context.getBean(EntityManagerFactory.class));
+                jpaPagingItemReader.setPageSize(chunkSize);
+                jpaPagingItemReader.afterPropertiesSet();
+                return jpaPagingItemReader;
+            case "KEYSET":
+                JpaKeysetPagingItemReader<User> keysetReader = new JpaKeysetPagingItemReader<>();
+                keysetReader.setQueryString("select u from User u where u.id > :lastId and u.updatedDate < :updatedDate and u.status = :status order by u.id");
+                keysetReader.setParameterValues(parameters(updatedDate));
+                keysetReader.setEntityManagerFactory(context.getBean(EntityManagerFactory.class));
+                keysetReader.setIdExtractor(User::getId);
+                keysetReader.setPageSize(chunkSize);
+                return keysetReader;
+            default:
+                throw new IllegalArgumentException("Unknown reader type: " + readerType);
+        }
+    }
+
+    private Map<String, Object> parameters(LocalDateTime updatedDate) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("updatedDate", updatedDate);
+        parameters.put("status", UserStatus.ACTIVE);
+        return parameters;
+    }
+}
@@ -0,0 +1,88 @@
+package com.community.batch.benchmark;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.writers.InactiveUserBulkWriter;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 휴면 전환 대상 전체를 청크 단위 트랜잭션으로 쓰는 비용을 Writer 구현체와 청크 크기별로 비교한다.
+ * 매 호출 전에 모든 회원을 ACTIVE로 되돌리고 대상을 다시 읽어 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InactiveUserWriterBenchmark {
+
+    @Param({"JPA", "BULK"})
+    public String writerType;
+
+    @Param({"15", "100", "1000"})
+    public int chunkSize;
+
+    private ItemWriter<User> writer;
+    private TransactionTemplate transactionTemplate;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp(InactiveUserBenchmarkContext context) throws Exception {
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        if ("JPA".equals(writerType)) {
+            JpaItemWriter<User> jpaItemWriter = new JpaItemWriter<>();
+            jpaItemWriter.setEntityManagerFactory(context.getBean(EntityManagerFactory.class));
+            jpaItemWriter.afterPropertiesSet();
+            writer = jpaItemWriter;
+        } else {
+            writer = new InactiveUserBulkWriter(context.getBean(UserJdbcRepository.class), LocalDateTime.now().minusYears(1));
+        }
+    }
+
+    // Level.Invocation 준비 시간은 측정에서 제외된다. 한번 호출이 충분히 길기 때문에 오차는 무시할 수 있다.
+    @Setup(Level.Invocation)
+    public void resetUsers(InactiveUserBenchmarkContext context) {
+        context.resetToActive();
+        users = context.getBean(UserRepository.class)
+                .findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE);
+        users.forEach(User::setInactive);
+    }
+
+    @Benchmark
+    public void writeAll(ItemCounter counter) {
+        for (int from = 0; from < users.size(); from += chunkSize) {
+            List<User> chunk = users.subList(from, Math.min(users.size(), from + chunkSize));
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    writer.write(chunk);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            counter.items += chunk.size();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.community.batch.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 처리한 아이템 수를 보조 카운터로 기록해서 JMH 결과에 items/sec로 함께 출력한다.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ItemCounter {
+
+    public long items;
+
+    @Setup(Level.Iteration)
+    public void clean() {
+        items = 0;
+    }
+}
@@ -6,10 +6,12 @@ import org.springframework.batch.core.configuration.annotation.EnableBatchProces
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 @EnableBatchProcessing
+@EnableCaching // 캐시 사용 여부와 종류는 spring.cache.type으로 정한다. (기본값 none)
 public class BatchApplication {
 
 	public static void main(String[] args) {
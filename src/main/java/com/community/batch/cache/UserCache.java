@@ -0,0 +1,124 @@
+package com.community.batch.cache;
+
+import com.community.batch.domain.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * findByEmail 결과를 email -> id(usersByEmail), id -> User(usersById) 두 캐시에 나눠 담는다.
+ * email과 id의 관계는 바뀌지 않으므로 회원 상태가 바뀌면 usersById에서 id로 바로 지울 수 있다. (청크 크기만큼만 지운다)
+ *
+ * 조회 도중 같은 회원이 무효화되면 조회한 값은 이미 오래된 값일 수 있으므로 캐시에 넣지 않는다.
+ * id별 버전(무효화 시각 역할을 하는 일련번호)을 조회 시작 시점과 비교하고, 비교와 저장은 id 키의 compute 안에서 하기 때문에
+ * 무효화가 비교보다 먼저면 저장하지 않고, 나중이면 저장한 값을 무효화가 지운다.
+ */
+public class UserCache implements Cache {
+
+    // id별 버전을 따로 두지 않고 고정 크기 배열에 나눠 담는다. 같은 칸을 쓰는 다른 회원은 캐시되지 않을 뿐 잘못된 값이 남지는 않는다.
+    private static final int VERSION_STRIPES = 4096;
+
+    private final CaffeineCache emails;
+    private final CaffeineCache users;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public UserCache(CaffeineCache emails, CaffeineCache users) {
+        this.emails = emails;
+        this.users = users;
+    }
+
+    /**
+     * 회원 상태가 바뀌었을 때 호출한다. 버전을 먼저 올리고 지우므로, 진행 중인 조회는 이 회원을 다시 캐시에 넣지 못한다.
+     */
+    public void invalidate(long id) {
+        versions.set(stripe(id), sequence.incrementAndGet());
+        users.getNativeCache().invalidate(id);
+    }
+
+    @Override
+    public String getName() {
+        return emails.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return emails.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        User user = cached(key);
+        return user == null ? null : new SimpleValueWrapper(user);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        return (T) cached(key);
+    }
+
+    /**
+     * UserRepository.findByEmail은 sync = true로 선언되어 있어 이 메서드로만 조회된다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        User user = cached(key);
+        if (user != null) {
+            return (T) user;
+        }
+        long startedAt = sequence.get();
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (loaded instanceof User) {
+            putIfUnchanged(key, (User) loaded, startedAt);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value instanceof User) {
+            putIfUnchanged(key, (User) value, sequence.get());
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        Object id = emails.getNativeCache().getIfPresent(key);
+        emails.evict(key);
+        if (id != null) {
+            invalidate((Long) id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        emails.clear();
+        users.clear();
+    }
+
+    private User cached(Object key) {
+        Object id = emails.getNativeCache().getIfPresent(key);
+        return id == null ? null : (User) users.getNativeCache().getIfPresent(id);
+    }
+
+    private void putIfUnchanged(Object key, User user, long startedAt) {
+        Long id = user.getId();
+        users.getNativeCache().asMap().compute(id, (k, current) -> versions.get(stripe(id)) > startedAt ? current : user);
+        emails.getNativeCache().put(key, id);
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (VERSION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,23 @@
+package com.community.batch.cache;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * JPA로 수정된 회원을 조회 캐시에서 지우도록 UserCacheEvictor를 Hibernate post-update 이벤트 리스너로 등록한다.
+ * 엔티티의 @EntityListeners 대신 여기서 등록하므로 도메인(User)은 캐시 패키지에 의존하지 않는다.
+ */
+@Configuration
+public class UserCacheConfig {
+
+    public UserCacheConfig(EntityManagerFactory entityManagerFactory, UserCacheEvictor userCacheEvictor) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_UPDATE, userCacheEvictor);
+    }
+}
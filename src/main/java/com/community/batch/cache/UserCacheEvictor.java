@@ -0,0 +1,102 @@
+package com.community.batch.cache;
+
+import com.community.batch.domain.User;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * UserRepository 조회 캐시(usersByEmail, usersById) 제공과 무효화
+ * findByEmail의 cacheResolver로 지정되어 두 캐시를 묶은 UserCache를 돌려준다.
+ *
+ * 회원 상태가 바뀌면 바로 한번, 트랜잭션이 커밋된 뒤 한번 더 무효화한다.
+ * 커밋 전에 시작한 조회는 아직 ACTIVE인 값을 읽을 수 있는데, 커밋 후 무효화로 버전이 다시 올라가므로 그 값은 캐시에 남지 않는다.
+ *
+ * JPA로 저장하는 경우 UserCacheConfig가 등록한 Hibernate post-update 이벤트로, UserJdbcRepository로 일괄 변경하는 경우 id 목록으로 호출된다.
+ * 캐시가 꺼져 있으면(spring.cache.type=none) 아무 일도 하지 않는다.
+ */
+@Component
+public class UserCacheEvictor implements CacheResolver, PostUpdateEventListener {
+
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String USERS_BY_ID = "usersById";
+
+    private final CacheManager cacheManager;
+    private volatile Collection<? extends Cache> caches;
+
+    public UserCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> resolved = caches;
+        if (resolved == null) {
+            Cache emails = cacheManager.getCache(USERS_BY_EMAIL);
+            Cache users = cacheManager.getCache(USERS_BY_ID);
+            if (emails instanceof CaffeineCache && users instanceof CaffeineCache) {
+                resolved = Collections.singletonList(new UserCache((CaffeineCache) emails, (CaffeineCache) users));
+            } else {
+                resolved = Collections.singletonList(emails); // none이면 NoOpCache
+            }
+            caches = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof User)) {
+            return;
+        }
+        Long id = ((User) event.getEntity()).getId();
+        if (id != null) {
+            invalidateNowAndAfterCommit(cache -> cache.invalidate(id));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false; // 커밋 후 무효화는 TransactionSynchronization으로 직접 등록한다.
+    }
+
+    public void evictByIds(long[] ids, int length) {
+        invalidateNowAndAfterCommit(cache -> {
+            for (int i = 0; i < length; i++) {
+                cache.invalidate(ids[i]);
+            }
+        });
+    }
+
+    private void invalidateNowAndAfterCommit(Invalidation invalidation) {
+        Cache cache = resolveCaches(null).iterator().next();
+        if (!(cache instanceof UserCache)) {
+            return;
+        }
+        UserCache userCache = (UserCache) cache;
+        invalidation.invalidate(userCache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.invalidate(userCache);
+                }
+            });
+        }
+    }
+
+    private interface Invalidation {
+        void invalidate(UserCache cache);
+    }
+}
@@ -0,0 +1,31 @@
+package com.community.batch.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 휴면 전환 안내 발송 이력
+ * 같은 Job 인스턴스(재시작 포함)에서 한 회원에게 한번만 보내도록 발송에 성공한 안내를 기록한다.
+ * noticeKey(inactive-{jobInstanceId}-{userId})는 발송 서비스에도 멱등 키로 전달된다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_inactive_notice_history_user_job", columnList = "userId, jobInstanceId")
+})
+public class InactiveNoticeHistory implements Serializable {
+
+    @Id
+    private String noticeKey;
+
+    private Long userId;
+
+    private Long jobInstanceId;
+
+    private LocalDateTime sentDate;
+}
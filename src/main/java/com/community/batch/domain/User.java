@@ -17,13 +17,31 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @Entity
-@Table
+// 휴면회원 배치 조회용 인덱스
+// idx_user_status_id_updated_date: 파티션/키셋/커서 Reader (status = ? and id 구간 and updated_date < ? order by id)
+// idx_user_status_grade_updated_date: 등급별 조회 (status = ? and grade = ? and updated_date < ?)
+// idx_user_status_updated_date: 증분 모드의 파티션 id 구간 조회 (status = ? and updated_date >= ? and updated_date < ?)
+// 모든 인덱스가 id를 포함하므로 id만 읽는 쿼리는 테이블을 읽지 않고 인덱스만으로 처리된다.
+@Table(indexes = {
+        @Index(name = "idx_user_status_id_updated_date", columnList = "status, id, updatedDate"),
+        @Index(name = "idx_user_status_grade_updated_date", columnList = "status, grade, updatedDate, id"),
+        @Index(name = "idx_user_status_updated_date", columnList = "status, updatedDate, id")
+})
 @EqualsAndHashCode(of = {"id", "email"})
 public class User implements Serializable {
 
+    // IDENTITY는 insert를 실행해야 id를 알 수 있어서 Hibernate가 insert를 JDBC 배치로 묶지 못한다.
+//    @Id
+//    @Column
+//    @GeneratedValue(strategy = GenerationType.IDENTITY)
+//    private Long id;
+
+    // 시퀀스에서 allocationSize 만큼 id를 한번에 받아 두고 메모리에서 할당한다. (pooled optimizer)
+    // 시퀀스가 없는 MySQL에서는 user_seq 테이블로 대신한다. 기존 DB는 db/mysql/user-seq.sql로 max(id) 다음 값부터 시작하게 만든다.
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 100)
     private Long id;
 
     private String name;
@@ -0,0 +1,58 @@
+package com.community.batch.jobs;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import com.community.batch.jobs.metadata.InactiveBatchConfigurer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.BatchConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.batch.BatchProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * JobRepository 메타데이터 기록 방식 설정
+ * BatchConfigurer 빈을 등록하면 Spring Boot의 기본 BatchConfigurer(JpaBatchConfigurer) 대신 사용된다.
+ */
+@Slf4j
+@Configuration
+public class InactiveMetadataConfig {
+
+    @Bean
+    public BatchConfigurer batchConfigurer(BatchProperties batchProperties, DataSource dataSource,
+                                           ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers,
+                                           EntityManagerFactory entityManagerFactory, InactiveUserJobProperties inactiveUserJobProperties,
+                                           MeterRegistry meterRegistry) {
+        if (inactiveUserJobProperties.getMetadata().getRepository() == InactiveUserJobProperties.RepositoryType.MEMORY) {
+            checkMemoryRepository(inactiveUserJobProperties);
+        }
+        return new InactiveBatchConfigurer(batchProperties, dataSource, transactionManagerCustomizers.getIfAvailable(),
+                entityManagerFactory, inactiveUserJobProperties, meterRegistry);
+    }
+
+    /**
+     * 메모리 JobRepository는 이 프로세스 안에서만 보이고 종료하면 사라진다.
+     * 원격 파티셔닝은 manager와 worker가 같은 JobRepository로 StepExecution을 주고받고,
+     * 증분 모드는 이전에 완료된 실행의 기준 시각을 읽어야 하므로 잘못된 결과 대신 시작할 때 실패시킨다.
+     * 재시작만 못하는 모드(Tasklet, 동적 파티셔닝, 안내 발송)는 경고만 남긴다.
+     */
+    private void checkMemoryRepository(InactiveUserJobProperties inactiveUserJobProperties) {
+        InactiveUserJobProperties.Remote remote = inactiveUserJobProperties.getRemote();
+        if (remote.isManager() || remote.isWorker()) {
+            throw new IllegalStateException("inactive-user-job.metadata.repository=memory cannot be used with remote partitioning, "
+                    + "manager and workers must share a JDBC JobRepository");
+        }
+        if (inactiveUserJobProperties.isIncremental()) {
+            throw new IllegalStateException("inactive-user-job.metadata.repository=memory cannot be used with incremental=true, "
+                    + "the previous cutoff is not kept after shutdown");
+        }
+        if (inactiveUserJobProperties.getTasklet().isEnabled() || inactiveUserJobProperties.getDynamicPartition().isEnabled()
+                || inactiveUserJobProperties.getNotice().isEnabled()) {
+            log.warn("Memory JobRepository does not keep executions after shutdown, inactiveUserJob cannot be restarted");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.community.batch.jobs;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import com.community.batch.jobs.notice.InMemoryInactiveNoticeSender;
+import com.community.batch.jobs.notice.InactiveNoticeSender;
+import com.community.batch.jobs.notice.InactiveNoticeWriter;
+import com.community.batch.jobs.notice.TokenBucketRateLimiter;
+import com.community.batch.jobs.readers.JpaKeysetPagingItemReader;
+import com.community.batch.repository.InactiveNoticeHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * 휴면 전환 안내 발송 Step 설정
+ * 휴면 전환 Step이 끝난 뒤 이번 실행(재시작 포함)에서 전환된 회원 중 아직 안내를 받지 않은 회원을 읽어 발송한다.
+ * 발송은 별도 Step에서 하므로 휴면 전환 트랜잭션은 메일 응답을 기다리지 않는다.
+ */
+@Configuration
+@AllArgsConstructor
+public class InactiveNoticeConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final InactiveUserJobProperties inactiveUserJobProperties;
+
+    /**
+     * 발송 시간은 Writer 안에서 noticeTaskExecutor로 동시에 처리하므로 Step은 단일 스레드로 실행한다.
+     * 키셋 Reader가 커밋된 위치를 저장하므로 재시작하면 실패한 청크부터 다시 읽고, 이미 보낸 회원은 이력으로 걸러진다.
+     */
+    @Bean
+    public Step inactiveNoticeStep(StepBuilderFactory stepBuilderFactory, JpaKeysetPagingItemReader<User> inactiveNoticeReader,
+                                   InactiveNoticeWriter inactiveNoticeWriter) {
+        return stepBuilderFactory.get("inactiveNoticeStep")
+                .<User, User> chunk(inactiveUserJobProperties.getNotice().getChunkSize())
+                .reader(inactiveNoticeReader)
+                .writer(inactiveNoticeWriter)
+                .build();
+    }
+
+    /**
+     * 이번 실행에서 전환된 회원(convertedFrom 이후에 INACTIVE로 바뀐 회원) 중 이 Job 인스턴스의 발송 이력이 없는 회원
+     */
+    @Bean
+    @StepScope
+    public JpaKeysetPagingItemReader<User> inactiveNoticeReader(@Value("#{jobExecutionContext[convertedFrom]}") Date convertedFrom,
+                                                                @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId) {
+        JpaKeysetPagingItemReader<User> keysetReader = new JpaKeysetPagingItemReader<>();
+        keysetReader.setName("inactiveNoticeReader");
+        keysetReader.setQueryString("select u from User u" +
+                " where u.id > :lastId and u.status = :status and u.updatedDate >= :convertedFrom" +
+                " and not exists (select n from InactiveNoticeHistory n where n.userId = u.id and n.jobInstanceId = :jobInstanceId)" +
+                " order by u.id");
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("status", UserStatus.INACTIVE);
+        map.put("convertedFrom", LocalDateTime.ofInstant(convertedFrom.toInstant(), ZoneId.systemDefault()));
+        map.put("jobInstanceId", jobInstanceId);
+
+        keysetReader.setParameterValues(map);
+        keysetReader.setEntityManagerFactory(entityManagerFactory);
+        keysetReader.setIdExtractor(User::getId);
+        keysetReader.setPageSize(inactiveUserJobProperties.getNotice().getChunkSize());
+        return keysetReader;
+    }
+
+    /**
+     * 토큰 버킷은 Step 실행마다 새로 만든다.
+     */
+    @Bean
+    @StepScope
+    public InactiveNoticeWriter inactiveNoticeWriter(InactiveNoticeSender inactiveNoticeSender, TaskExecutor noticeTaskExecutor,
+                                                     InactiveNoticeHistoryRepository inactiveNoticeHistoryRepository,
+                                                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                                     @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId) {
+        InactiveUserJobProperties.Notice notice = inactiveUserJobProperties.getNotice();
+        return new InactiveNoticeWriter(inactiveNoticeSender, new TokenBucketRateLimiter(notice.getPermitsPerSecond(), notice.getBurst()),
+                noticeTaskExecutor, inactiveNoticeHistoryRepository, transactionManager, meterRegistry, jobInstanceId,
+                notice.getSendTimeoutMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "inactive-user-job.notice", name = "sender", havingValue = "memory", matchIfMissing = true)
+    public InMemoryInactiveNoticeSender inactiveNoticeSender() {
+        return new InMemoryInactiveNoticeSender();
+    }
+}
@@ -0,0 +1,89 @@
+package com.community.batch.jobs;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import lombok.AllArgsConstructor;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.integration.partition.BeanFactoryStepLocator;
+import org.springframework.batch.integration.partition.MessageChannelPartitionHandler;
+import org.springframework.batch.integration.partition.StepExecutionRequest;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+
+/**
+ * 휴면회원 배치 원격 파티셔닝 설정
+ * manager는 파티션마다 StepExecutionRequest를 inactiveUserRequests 채널로 보내고,
+ * worker가 실행한 결과는 공유 JobRepository를 주기적으로 조회해서 모은다.
+ * 채널이 전송 계층이므로 local(프로세스 내부) 대신 브로커 기반 채널을 등록하면 여러 노드로 나눠 실행할 수 있다.
+ */
+@Configuration
+@AllArgsConstructor
+public class InactiveRemotePartitionConfig {
+
+    // worker가 StepLocator로 찾는 Step 빈 이름
+    private static final String WORKER_STEP_BEAN_NAME = "inactiveJobStep";
+
+    private final InactiveUserJobProperties inactiveUserJobProperties;
+
+    /**
+     * 프로세스 내부 전송 채널
+     * 한 대의 장비에서 manager와 worker를 함께 실행하거나 테스트할 때 사용한다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "inactive-user-job.remote", name = "transport", havingValue = "local", matchIfMissing = true)
+    public SubscribableChannel inactiveUserRequests(TaskExecutor partitionTaskExecutor) {
+        return new ExecutorChannel(partitionTaskExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "inactive-user-job.remote", name = "manager", havingValue = "true")
+    public PartitionHandler inactiveUserPartitionHandler(MessageChannel inactiveUserRequests, JobExplorer jobExplorer) {
+        MessagingTemplate messagingTemplate = new MessagingTemplate();
+        messagingTemplate.setDefaultChannel(inactiveUserRequests);
+
+        InactiveUserJobProperties.Remote remote = inactiveUserJobProperties.getRemote();
+        MessageChannelPartitionHandler partitionHandler = new MessageChannelPartitionHandler();
+        partitionHandler.setStepName(WORKER_STEP_BEAN_NAME);
+        partitionHandler.setGridSize(inactiveUserJobProperties.getGridSize());
+        partitionHandler.setMessagingOperations(messagingTemplate);
+        // 응답 채널 대신 JobRepository를 조회해서 worker의 StepExecution 완료 여부를 확인한다.
+        partitionHandler.setJobExplorer(jobExplorer);
+        partitionHandler.setPollInterval(remote.getPollInterval());
+        partitionHandler.setTimeout(remote.getTimeout());
+        return partitionHandler;
+    }
+
+    /**
+     * worker: 채널로 받은 요청의 StepExecution을 JobRepository에서 읽어 inactiveJobStep을 실행한다.
+     * manager를 겸하지 않는 worker가 시작할 때 inactiveUserJob까지 실행하면 worker 수만큼 Job이 시작되므로,
+     * spring.batch.job.enabled=false(worker 프로필)가 아니면 시작하지 않는다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "inactive-user-job.remote", name = "worker", havingValue = "true")
+    public MessageHandler inactiveUserWorkerHandler(SubscribableChannel inactiveUserRequests, JobExplorer jobExplorer, BeanFactory beanFactory,
+                                                    @Value("${spring.batch.job.enabled:true}") boolean jobLaunchEnabled) {
+        if (jobLaunchEnabled && !inactiveUserJobProperties.getRemote().isManager()) {
+            throw new IllegalStateException("Remote worker must not launch inactiveUserJob, "
+                    + "run it with the worker profile or spring.batch.job.enabled=false");
+        }
+        StepExecutionRequestHandler stepExecutionRequestHandler = new StepExecutionRequestHandler();
+        stepExecutionRequestHandler.setJobExplorer(jobExplorer);
+        BeanFactoryStepLocator stepLocator = new BeanFactoryStepLocator(); // Step 빈 이름으로 찾는다.
+        stepLocator.setBeanFactory(beanFactory);
+        stepExecutionRequestHandler.setStepLocator(stepLocator);
+
+        MessageHandler messageHandler = message -> stepExecutionRequestHandler.handle((StepExecutionRequest) message.getPayload());
+        inactiveUserRequests.subscribe(messageHandler);
+        return messageHandler;
+    }
+}
@@ -0,0 +1,265 @@
+package com.community.batch.jobs;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 휴면회원 배치에서 사용하는 TaskExecutor 설정
+ * SimpleAsyncTaskExecutor는 작업마다 스레드를 새로 만들기 때문에 gridSize가 커지면
+ * 커넥션 풀보다 많은 스레드가 커넥션을 기다리게 된다.
+ * 파티션용과 청크용 스레드 풀을 나누고, 두 풀의 크기를 커넥션 풀 크기에서 계산한다.
+ *
+ * 파티션 하나는 Reader가 사용하는 커넥션 1개와 청크 스레드(throttleLimit 개)의 트랜잭션 커넥션을 사용하므로
+ * 파티션 스레드 수 = (커넥션 풀 크기 - 예약 커넥션) / (throttleLimit + 1)
+ * 청크 스레드 수 = 파티션 스레드 수 * throttleLimit
+ */
+@Slf4j
+@Configuration
+@AllArgsConstructor
+public class InactiveTaskExecutorConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final InactiveUserJobProperties inactiveUserJobProperties;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 파티션(및 multiFlow의 split) 실행용 TaskExecutor
+     * TaskExecutorPartitionHandler는 모든 파티션을 한번에 제출하므로 대기 큐는 제한하지 않고 스레드 수만 제한한다.
+     */
+    @Bean
+    public TaskExecutor partitionTaskExecutor() {
+        int poolSize = partitionPoolSize();
+        if (useVirtualThreads()) {
+            return virtualThreadTaskExecutor("Batch_Partition_V", poolSize, "partitionTaskExecutor");
+        }
+        ThreadPoolTaskExecutor executor = threadPoolTaskExecutor("Batch_Partition", poolSize, Integer.MAX_VALUE);
+        bindMetrics(executor, "partitionTaskExecutor");
+        return executor;
+    }
+
+    /**
+     * 멀티 스레드 Step의 청크 실행용 TaskExecutor
+     */
+    @Bean
+    public TaskExecutor chunkTaskExecutor() {
+        int poolSize = partitionPoolSize() * inactiveUserJobProperties.getThrottleLimit();
+        if (useVirtualThreads()) {
+            return virtualThreadTaskExecutor("Batch_Chunk_V", poolSize, "chunkTaskExecutor");
+        }
+        ThreadPoolTaskExecutor executor = threadPoolTaskExecutor("Batch_Chunk", poolSize,
+                inactiveUserJobProperties.getExecutor().getChunkQueueCapacity());
+        bindMetrics(executor, "chunkTaskExecutor");
+        return executor;
+    }
+
+    /**
+     * PrefetchingItemReader의 미리 읽기 실행용 TaskExecutor
+     * 미리 읽기 작업은 파티션마다 하나씩 Reader가 닫힐 때까지 실행되므로 파티션 스레드 수만큼 만든다.
+     * 호출한 스레드가 직접 실행하면 open()이 끝나지 않으므로 대기 큐는 제한하지 않는다.
+     */
+    @Bean
+    public TaskExecutor prefetchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = threadPoolTaskExecutor("Batch_Prefetch", partitionPoolSize(), Integer.MAX_VALUE);
+        bindMetrics(executor, "prefetchTaskExecutor");
+        return executor;
+    }
+
+    /**
+     * AsyncItemProcessor 실행용 TaskExecutor
+     * Processor는 DB 커넥션 없이 CPU를 쓰는 작업이므로 커넥션 풀이 아니라 CPU 코어 수 기준으로 크기를 정한다.
+     */
+    @Bean
+    public TaskExecutor processorTaskExecutor() {
+        InactiveUserJobProperties.Executor properties = inactiveUserJobProperties.getExecutor();
+        ThreadPoolTaskExecutor executor = threadPoolTaskExecutor("Batch_Processor", properties.getProcessorThreads(),
+                properties.getProcessorQueueCapacity());
+        bindMetrics(executor, "processorTaskExecutor");
+        return executor;
+    }
+
+    /**
+     * 휴면 전환 안내 발송용 TaskExecutor
+     * 발송은 외부 서비스 응답을 기다리는 작업이므로 커넥션 풀이 아니라 notice.threads 기준으로 크기를 정한다.
+     * Writer가 청크 크기만큼만 제출하므로 대기 큐는 청크 크기로 둔다.
+     */
+    @Bean
+    public TaskExecutor noticeTaskExecutor() {
+        InactiveUserJobProperties.Notice notice = inactiveUserJobProperties.getNotice();
+        ThreadPoolTaskExecutor executor = threadPoolTaskExecutor("Batch_Notice", notice.getThreads(), notice.getChunkSize());
+        bindMetrics(executor, "noticeTaskExecutor");
+        return executor;
+    }
+
+    /**
+     * InactiveItemTasklet 병렬 모드용 ForkJoinPool
+     * Tasklet Step의 트랜잭션이 커넥션 1개, 호출 스레드가 직접 실행하는 조각이 1개를 더 사용할 수 있으므로 2개를 빼고 계산한다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool inactiveForkJoinPool() {
+        int available = connectionPoolSize() - inactiveUserJobProperties.getExecutor().getReservedConnections() - 2;
+        int parallelism = Math.max(1, Math.min(inactiveUserJobProperties.getTasklet().getParallelism(), available));
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Batch_ForkJoin-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        new ExecutorServiceMetrics(forkJoinPool, "inactiveForkJoinPool", Tags.empty()).bindTo(meterRegistry);
+        log.info("Batch_ForkJoin parallelism = {}", parallelism);
+        return forkJoinPool;
+    }
+
+    private int partitionPoolSize() {
+        int available = connectionPoolSize() - inactiveUserJobProperties.getExecutor().getReservedConnections();
+        return Math.max(1, available / (inactiveUserJobProperties.getThrottleLimit() + 1));
+    }
+
+    private int connectionPoolSize() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot read connection pool size, using default {}", DEFAULT_POOL_SIZE, e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // 큐가 가득 차면 작업을 버리지 않고 제출한 스레드가 직접 실행해서 자연스럽게 속도를 늦춘다.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        log.info("{} pool size = {}", threadNamePrefix, poolSize);
+        return executor;
+    }
+
+    /**
+     * 대기 큐 길이(executor.queued), 활성 스레드 수 등을 애플리케이션의 MeterRegistry에 등록한다.
+     */
+    private void bindMetrics(ThreadPoolTaskExecutor executor, String name) {
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    private boolean useVirtualThreads() {
+        if (!inactiveUserJobProperties.getExecutor().isVirtualThreads()) {
+            return false;
+        }
+        if (virtualThreadFactory("probe") == null) {
+            log.warn("Virtual threads are not supported on Java {}, using thread pools", System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+
+    private TaskExecutor virtualThreadTaskExecutor(String threadNamePrefix, int concurrencyLimit, String name) {
+        MeteredAsyncTaskExecutor executor = new MeteredAsyncTaskExecutor(virtualThreadFactory(threadNamePrefix), meterRegistry, name);
+        executor.setConcurrencyLimit(concurrencyLimit); // 커넥션 풀 크기 이상으로 동시에 실행되지 않도록 제한
+        log.info("{} virtual thread concurrency limit = {}", threadNamePrefix, concurrencyLimit);
+        return executor;
+    }
+
+    /**
+     * Java 8 소스 레벨로 컴파일하기 때문에 Thread.ofVirtual()은 리플렉션으로 호출한다.
+     * @return 가상 스레드를 지원하지 않으면 null
+     */
+    private ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 가상 스레드용 SimpleAsyncTaskExecutor는 스레드 풀이 없어서 ExecutorServiceMetrics로 묶을 수 없다.
+     * 스레드 풀과 같은 이름(executor.queued, executor.active, executor.completed, executor.pool.max)으로 직접 센다.
+     * 동시 실행 제한(concurrencyLimit)에 걸려 기다리는 작업이 대기 작업이다.
+     */
+    private static class MeteredAsyncTaskExecutor extends SimpleAsyncTaskExecutor {
+
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Counter completed;
+
+        MeteredAsyncTaskExecutor(ThreadFactory threadFactory, MeterRegistry registry, String name) {
+            super(threadFactory);
+            Tags tags = Tags.of("name", name);
+            Gauge.builder("executor.queued", queued, AtomicInteger::get)
+                    .tags(tags)
+                    .description("The approximate number of tasks that are waiting for the concurrency limit")
+                    .baseUnit(BaseUnits.TASKS)
+                    .register(registry);
+            Gauge.builder("executor.active", active, AtomicInteger::get)
+                    .tags(tags)
+                    .description("The approximate number of threads that are actively executing tasks")
+                    .baseUnit(BaseUnits.THREADS)
+                    .register(registry);
+            Gauge.builder("executor.pool.max", this, SimpleAsyncTaskExecutor::getConcurrencyLimit)
+                    .tags(tags)
+                    .description("The concurrency limit of the executor")
+                    .baseUnit(BaseUnits.THREADS)
+                    .register(registry);
+            completed = Counter.builder("executor.completed")
+                    .tags(tags)
+                    .description("The approximate total number of tasks that have completed execution")
+                    .baseUnit(BaseUnits.TASKS)
+                    .register(registry);
+        }
+
+        @Override
+        public void execute(Runnable task, long startTimeout) {
+            queued.incrementAndGet();
+            try {
+                super.execute(task, startTimeout);
+            } catch (RuntimeException e) {
+                queued.decrementAndGet(); // 스레드를 시작하지 못한 작업은 실행되지 않는다.
+                throw e;
+            }
+        }
+
+        @Override
+        protected void doExecute(Runnable task) {
+            super.doExecute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            });
+        }
+    }
+}
@@ -3,33 +3,64 @@ package com.community.batch.jobs;
 import com.community.batch.domain.User;
 import com.community.batch.domain.enums.Grade;
 import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.inactive.InactiveItemTasklet;
 import com.community.batch.jobs.inactive.InactiveJobExecutionDecider;
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
 import com.community.batch.jobs.inactive.InactiveUserPartitioner;
 import com.community.batch.jobs.inactive.listener.InactiveIJobListener;
 import com.community.batch.jobs.inactive.listener.InactiveStepListener;
+import com.community.batch.jobs.inactive.listener.InactiveUserCutoffListener;
+import com.community.batch.jobs.inactive.listener.InactiveWriteContentionListener;
+import com.community.batch.jobs.policy.AdaptiveCompletionPolicy;
+import com.community.batch.jobs.progress.InactiveJobProgressTracker;
+import com.community.batch.jobs.readers.InactiveUserIdBlockReader;
+import com.community.batch.jobs.readers.JpaKeysetPagingItemReader;
+import com.community.batch.jobs.readers.PrefetchingItemReader;
 import com.community.batch.jobs.readers.QueueItemReader;
+import com.community.batch.jobs.staging.InactiveIdStagingArea;
+import com.community.batch.jobs.writers.InactiveUserBulkWriter;
+import com.community.batch.jobs.writers.InactiveUserIdBlockWriter;
+import com.community.batch.repository.UserJdbcRepository;
 import com.community.batch.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.builder.SimpleJobBuilder;
 import org.springframework.batch.core.job.flow.Flow;
 import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
 import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.item.database.builder.HibernateCursorItemReaderBuilder;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
 import org.springframework.util.ObjectUtils;
 
 import javax.persistence.EntityManagerFactory;
@@ -38,15 +69,17 @@ import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 @AllArgsConstructor
 @Configuration
+@EnableConfigurationProperties(InactiveUserJobProperties.class)
 @Slf4j
 public class InactiveUserJobConfig {
 
-    private final static int CHUNK_SIZE = 15;
     private final EntityManagerFactory entityManagerFactory;
+    private final InactiveUserJobProperties inactiveUserJobProperties;
 
     /**
      * 휴면회원 배치 Job 빈으로 등록 by MultiFlow
@@ -66,31 +99,103 @@ public class InactiveUserJobConfig {
     /**
      * 휴면회원 배치 Job 빈으로 등록 by Partition
      */
+//    @Bean
+//    public Job inactiveUserJob(JobBuilderFactory jobBuilderFactory,
+//                               InactiveIJobListener inactiveIJobListener,
+//                               InactiveUserCutoffListener inactiveUserCutoffListener,
+//                               Step partitionerStep) {
+//        return jobBuilderFactory.get("inactiveUserJob") // 'inactiveUserJob' 이라는 이름의 JobBuilder 생성
+//                .preventRestart() // Job 재실행 방지
+//                .listener(inactiveIJobListener)
+//                .listener(inactiveUserCutoffListener) // 휴면 전환 기준 시각(updatedFrom ~ updatedBefore)을 jobExecutionContext에 저장
+//                .start(partitionerStep) // 파라미터에 주입받은 휴면회원 관련 Step inactiveJobStep을 제일 먼저 실행하도록 설정하는 부분
+//                .build();
+//    }
+
+    /**
+     * 휴면회원 배치 Job 빈으로 등록 by Partition 또는 Tasklet
+     * inactive-user-job.tasklet.enabled=true면 파티셔닝 없이 inactiveTaskletStep 하나로 처리한다.
+     * Tasklet 모드와 동적 파티셔닝은 커밋된 위치(완료된 작업 단위)부터 이어서 처리할 수 있으므로 재실행을 허용한다.
+     * inactive-user-job.notice.enabled=true면 휴면 전환 다음에 inactiveNoticeStep으로 안내를 보낸다.
+     * 발송이 실패하면 보내지 못한 회원에게만 다시 보내도록 재실행을 허용한다.
+     */
     @Bean
     public Job inactiveUserJob(JobBuilderFactory jobBuilderFactory,
                                InactiveIJobListener inactiveIJobListener,
-                               Step partitionerStep) {
-        return jobBuilderFactory.get("inactiveUserJob") // 'inactiveUserJob' 이라는 이름의 JobBuilder 생성
-                .preventRestart() // Job 재실행 방지
+                               InactiveUserCutoffListener inactiveUserCutoffListener,
+                               InactiveIdStagingArea inactiveIdStagingArea,
+                               InactiveJobProgressTracker inactiveJobProgressTracker,
+                               Step partitionerStep,
+                               Step inactiveTaskletStep,
+                               Step inactiveNoticeStep) {
+        boolean taskletMode = inactiveUserJobProperties.getTasklet().isEnabled();
+        boolean noticeMode = inactiveUserJobProperties.getNotice().isEnabled();
+        JobBuilder jobBuilder = jobBuilderFactory.get("inactiveUserJob"); // 'inactiveUserJob' 이라는 이름의 JobBuilder 생성
+        if (!taskletMode && !inactiveUserJobProperties.getDynamicPartition().isEnabled() && !noticeMode) {
+            jobBuilder.preventRestart(); // Job 재실행 방지
+        }
+        SimpleJobBuilder simpleJobBuilder = jobBuilder
                 .listener(inactiveIJobListener)
-                .start(partitionerStep) // 파라미터에 주입받은 휴면회원 관련 Step inactiveJobStep을 제일 먼저 실행하도록 설정하는 부분
+                .listener(inactiveUserCutoffListener) // 휴면 전환 기준 시각(updatedFrom ~ updatedBefore)을 jobExecutionContext에 저장
+                .listener(inactiveIdStagingArea) // Job이 끝나면(성공, 실패 모두) 대상 id 임시 파일 삭제
+                .listener(inactiveJobProgressTracker) // 진행 상황 조회(/inactive-user-job/progress)용
+                .start(taskletMode ? inactiveTaskletStep : partitionerStep);
+        if (noticeMode) {
+            simpleJobBuilder.next(inactiveNoticeStep); // 휴면 전환이 커밋된 뒤에 안내를 보낸다.
+        }
+        return simpleJobBuilder.build();
+    }
+
+    /**
+     * InactiveItemTasklet은 프로젝트의 Tasklet 인터페이스를 구현하므로 메서드 참조로 Spring Batch Tasklet에 연결한다.
+     */
+    @Bean
+    public Step inactiveTaskletStep(StepBuilderFactory stepBuilderFactory, InactiveItemTasklet inactiveItemTasklet,
+                                    InactiveJobProgressTracker inactiveJobProgressTracker) {
+        return stepBuilderFactory.get("inactiveTaskletStep")
+                .tasklet(inactiveItemTasklet::execute)
+                .listener((StepExecutionListener) inactiveItemTasklet) // 대상 id 모으기는 청크 트랜잭션 밖(beforeStep)에서 한다.
+                .listener((StepExecutionListener) inactiveJobProgressTracker)
+                .listener((ChunkListener) inactiveJobProgressTracker)
                 .build();
     }
 
     @Bean
     @JobScope // Job 실행 때마다 빈을 새로 생성하는 @JobScope 추가
-    public Step partitionerStep(StepBuilderFactory stepBuilderFactory, Step inactiveJobStep) {
+    public Step partitionerStep(StepBuilderFactory stepBuilderFactory, UserJdbcRepository userJdbcRepository,
+                                PartitionHandler inactiveUserPartitionHandler, InactiveJobProgressTracker inactiveJobProgressTracker,
+                                @Value("#{jobExecutionContext[updatedFrom]}") Date updatedFrom,
+                                @Value("#{jobExecutionContext[updatedBefore]}") Date updatedBefore) {
+        InactiveUserPartitioner partitioner = new InactiveUserPartitioner(userJdbcRepository, updatedFrom, updatedBefore);
+        if (inactiveUserJobProperties.getDynamicPartition().isEnabled()) {
+            partitioner.setUnitSize(inactiveUserJobProperties.getDynamicPartition().getUnitSize()); // 작은 작업 단위로 나눈다.
+        }
         return stepBuilderFactory
                 .get("partitionerStep")
-                .partitioner("partitionerStep", new InactiveUserPartitioner())
-                .gridSize(3) // 파라미터로 사용한 gridSize, 현재 Grade Enum이 3이므로 3 이상으로 설정 해야함.
-                .step(inactiveJobStep)
-                .taskExecutor(taskExecutor())
+                .partitioner("partitionerStep", partitioner)
+                .partitionHandler(inactiveUserPartitionHandler) // 로컬 스레드 또는 원격 worker로 파티션을 실행한다.
+                .listener(partitioner) // 재시작 때 같은 구간으로 나누도록 처음 계산한 id 범위를 저장한다.
+                .listener((StepExecutionListener) inactiveJobProgressTracker) // 이번 실행의 대상 수(plan.remaining)를 읽는다.
                 .build();
     }
 
+    /**
+     * 로컬 파티션 실행
+     * 파티션마다 inactiveJobStep을 파티션 전용 스레드 풀에서 실행한다.
+     * 원격 파티셔닝(inactive-user-job.remote.manager=true)이면 InactiveRemotePartitionConfig의 핸들러를 사용한다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "inactive-user-job.remote", name = "manager", havingValue = "false", matchIfMissing = true)
+    public PartitionHandler inactiveUserPartitionHandler(Step inactiveJobStep, TaskExecutor partitionTaskExecutor) {
+        TaskExecutorPartitionHandler partitionHandler = new TaskExecutorPartitionHandler();
+        partitionHandler.setStep(inactiveJobStep);
+        partitionHandler.setTaskExecutor(partitionTaskExecutor); // 커넥션 풀 크기에 맞춰 제한된 파티션 전용 스레드 풀
+        partitionHandler.setGridSize(inactiveUserJobProperties.getGridSize()); // 휴면 대상 id 범위를 gridSize 개의 구간으로 나눈다.
+        return partitionHandler;
+    }
+
     @Bean
-    public Flow multiFlow(Step inactiveJobStep) {
+    public Flow multiFlow(Step inactiveJobStep, TaskExecutor partitionTaskExecutor) {
         Flow[] flows = new Flow[5];
 
         // IntStream을 이용해 배열의 크기 만큼 반복문을 돌린다.
@@ -101,34 +206,189 @@ public class InactiveUserJobConfig {
                         .end());
         FlowBuilder<Flow> flowBuilder = new FlowBuilder<>("MultiFlowTest");
         return flowBuilder
-                .split(taskExecutor()) // multiFlow에서 사용할 TaskExecutor를 등록한다.
+                .split(partitionTaskExecutor) // multiFlow에서 사용할 TaskExecutor를 등록한다.
                 .add(flows) // inactiveJobFlow 5개가 할당된 flows 배열을 추가한다.
                 .build();
     }
 
     /**
      * 멀티 스레드 Step
+     * ==> 작업마다 스레드를 새로 만들어 커넥션 풀보다 많은 스레드가 생길 수 있으므로
+     * InactiveTaskExecutorConfig의 partitionTaskExecutor, chunkTaskExecutor로 대체
      * @return
      */
-    @Bean
-    public TaskExecutor taskExecutor() {
-        return new SimpleAsyncTaskExecutor("Batch_Task"); // 뒤에 숫자가 1씩 증가하면서 이름이 정해짐
-    }
+//    @Bean
+//    public TaskExecutor taskExecutor() {
+//        return new SimpleAsyncTaskExecutor("Batch_Task"); // 뒤에 숫자가 1씩 증가하면서 이름이 정해짐
+//    }
 
+    /**
+     * 파티션마다 실행되는 Step
+     * inactive-user-job.id-only 설정에 따라 엔티티 방식(inactiveUserStep) 또는 id 블록 방식(inactiveUserIdStep)을 사용한다.
+     * 원격 worker가 이 빈 이름(inactiveJobStep)으로 Step을 찾으므로 두 방식 모두 같은 빈으로 등록한다.
+     */
     @Bean
-    public Step inactiveJobStep(StepBuilderFactory stepBuilderFactory, ListItemReader<User> inactiveUserReader, InactiveStepListener inactiveStepListener, TaskExecutor taskExecutor) {
+    public Step inactiveJobStep(StepBuilderFactory stepBuilderFactory, JpaKeysetPagingItemReader<User> inactiveUserReader,
+                                InactiveUserBulkWriter inactiveUserWriter, InactiveStepListener inactiveStepListener, TaskExecutor chunkTaskExecutor,
+                                AdaptiveCompletionPolicy inactiveChunkCompletionPolicy,
+                                InactiveUserIdBlockReader inactiveUserIdReader, InactiveUserIdBlockWriter inactiveUserIdWriter,
+                                SynchronizedItemStreamReader<User> inactiveUserCursorReader,
+                                PrefetchingItemReader<User> inactiveUserPrefetchReader,
+                                TaskExecutor processorTaskExecutor,
+                                InactiveWriteContentionListener inactiveWriteContentionListener,
+                                InactiveJobProgressTracker inactiveJobProgressTracker) {
+        if (inactiveUserJobProperties.isIdOnly()) {
+            return inactiveUserIdStep(stepBuilderFactory, inactiveUserIdReader, inactiveUserIdWriter, inactiveStepListener, chunkTaskExecutor,
+                    inactiveWriteContentionListener, inactiveJobProgressTracker);
+        }
+        ItemReader<User> reader = inactiveUserJobProperties.getReader() == InactiveUserJobProperties.ReaderType.CURSOR
+                ? inactiveUserCursorReader : inactiveUserReader; // inactive-user-job.reader 설정으로 선택
+        if (inactiveUserJobProperties.getPrefetch().isEnabled()) {
+            reader = inactiveUserPrefetchReader; // 선택된 Reader를 별도 스레드에서 미리 읽는다.
+        }
+        if (inactiveUserJobProperties.isAsyncProcessor()) {
+            return inactiveUserAsyncStep(stepBuilderFactory, reader, inactiveUserWriter, inactiveStepListener, chunkTaskExecutor,
+                    inactiveChunkCompletionPolicy, processorTaskExecutor, inactiveWriteContentionListener, inactiveJobProgressTracker);
+        }
         return stepBuilderFactory.get("inactiveUserStep")
-                .<User, User> chunk(CHUNK_SIZE) // chunk의 입력, 출력 타입을 User로 설정
-                // chunk 인잣값은 쓰기 시에 청크 단위로 묶어서 writer() 메서드를 실행시킬 단위를 지정한 것이다. 즉, 커밋의 단위가 10개 이다.
-                .reader(inactiveUserReader)
+                .<User, User> chunk(inactiveChunkCompletionPolicy) // chunk의 입력, 출력 타입을 User로 설정
+                // 고정된 청크 크기 대신 CompletionPolicy가 커밋 단위를 정한다. 청크 처리 시간에 맞춰 크기가 바뀐다.
+                .reader(reader)
                 .processor(inactiveUserProcessor()) // reader에서 조회된 User 들을 모두 비활성화 시킨다.
-                .writer(inactiveUserWriter())
-                .listener(inactiveStepListener)
-                .taskExecutor(taskExecutor)
-                .throttleLimit(2) // 설정된 제한 횟수만큼 스레드를 동시에 실행시키겠다는 의미. 시스템에 할당된 스레드 풀의 크기보다 작은 값으로 설정되어야 함
+                .writer(inactiveUserWriter) // 청크당 한번의 UPDATE로 휴면 전환, 실제 변경 건수를 writeCount로 보고한다.
+                .faultTolerant()
+                .retry(PessimisticLockingFailureException.class) // 데드락, 락 대기 시간 초과는 청크를 롤백하고 다시 시도한다.
+                .retryLimit(inactiveUserJobProperties.getRetry().getLimit())
+                .backOffPolicy(inactiveWriteBackOffPolicy())
+                .listener(inactiveWriteContentionListener) // 경합 횟수를 inactive.write.contention으로 기록
+                .listener((StepExecutionListener) inactiveStepListener) // 아이템 Listener 인터페이스도 함께 등록된다.
+                .listener((ChunkListener) inactiveStepListener)
+                .listener((ChunkListener) inactiveChunkCompletionPolicy) // 청크 처리 시간 측정
+                .listener((StepExecutionListener) inactiveJobProgressTracker) // 파티션별 진행 건수
+                .listener((ChunkListener) inactiveJobProgressTracker)
+                .taskExecutor(chunkTaskExecutor)
+                .throttleLimit(inactiveUserJobProperties.getThrottleLimit()) // 설정된 제한 횟수만큼 스레드를 동시에 실행시키겠다는 의미. 시스템에 할당된 스레드 풀의 크기보다 작은 값으로 설정되어야 함
                 .build();
     }
 
+    /**
+     * 비동기 Processor Step
+     * AsyncItemProcessor가 아이템마다 Processor 실행을 processorTaskExecutor에 넘기고 Future를 반환하며,
+     * AsyncItemWriter가 청크의 Future들을 순서대로 기다려 결과를 모은 뒤 기존 Writer에 넘긴다.
+     * 청크 단위 트랜잭션과 아이템 순서는 그대로이고, Processor에서 난 예외는 Writer 단계에서 원래 예외로 다시 던져진다.
+     */
+    private Step inactiveUserAsyncStep(StepBuilderFactory stepBuilderFactory, ItemReader<User> reader,
+                                       InactiveUserBulkWriter inactiveUserWriter, InactiveStepListener inactiveStepListener,
+                                       TaskExecutor chunkTaskExecutor, AdaptiveCompletionPolicy inactiveChunkCompletionPolicy,
+                                       TaskExecutor processorTaskExecutor, InactiveWriteContentionListener inactiveWriteContentionListener,
+                                       InactiveJobProgressTracker inactiveJobProgressTracker) {
+        AsyncItemProcessor<User, User> asyncItemProcessor = new AsyncItemProcessor<>();
+        asyncItemProcessor.setDelegate(inactiveStepListener.timed(inactiveUserProcessor())); // 처리 시간은 Processor 스레드에서 잰다.
+        asyncItemProcessor.setTaskExecutor(processorTaskExecutor);
+
+        AsyncItemWriter<User> asyncItemWriter = new AsyncItemWriter<>();
+        asyncItemWriter.setDelegate(inactiveUserWriter);
+
+        return stepBuilderFactory.get("inactiveUserStep")
+                .<User, Future<User>> chunk(inactiveChunkCompletionPolicy)
+                .reader(reader)
+                .processor(asyncItemProcessor)
+                .writer(asyncItemWriter)
+                .faultTolerant()
+                .retry(PessimisticLockingFailureException.class)
+                .retryLimit(inactiveUserJobProperties.getRetry().getLimit())
+                .backOffPolicy(inactiveWriteBackOffPolicy())
+                .listener(inactiveWriteContentionListener)
+                .listener((StepExecutionListener) inactiveStepListener)
+                .listener((ChunkListener) inactiveStepListener)
+                .listener((ChunkListener) inactiveChunkCompletionPolicy)
+                .listener((StepExecutionListener) inactiveJobProgressTracker)
+                .listener((ChunkListener) inactiveJobProgressTracker)
+                .taskExecutor(chunkTaskExecutor)
+                .throttleLimit(inactiveUserJobProperties.getThrottleLimit())
+                .build();
+    }
+
+    /**
+     * id 블록 방식 Step
+     * Reader가 청크 크기만큼의 id를 long 배열 하나로 읽어 오므로 블록 하나가 곧 청크(커밋 단위)다.
+     * Processor 없이 Writer가 블록을 그대로 UPDATE 한다.
+     */
+    private Step inactiveUserIdStep(StepBuilderFactory stepBuilderFactory, InactiveUserIdBlockReader inactiveUserIdReader,
+                                    InactiveUserIdBlockWriter inactiveUserIdWriter, InactiveStepListener inactiveStepListener,
+                                    TaskExecutor chunkTaskExecutor, InactiveWriteContentionListener inactiveWriteContentionListener,
+                                    InactiveJobProgressTracker inactiveJobProgressTracker) {
+        return stepBuilderFactory.get("inactiveUserIdStep")
+                .<long[], long[]> chunk(1)
+                .reader(inactiveUserIdReader)
+                .writer(inactiveUserIdWriter)
+                .faultTolerant()
+                .retry(PessimisticLockingFailureException.class)
+                .retryLimit(inactiveUserJobProperties.getRetry().getLimit())
+                .backOffPolicy(inactiveWriteBackOffPolicy())
+                .listener(inactiveWriteContentionListener)
+                .listener((StepExecutionListener) inactiveStepListener)
+                .listener((ChunkListener) inactiveStepListener)
+                .listener((StepExecutionListener) inactiveJobProgressTracker)
+                .listener((ChunkListener) inactiveJobProgressTracker)
+                .taskExecutor(chunkTaskExecutor)
+                .throttleLimit(inactiveUserJobProperties.getThrottleLimit())
+                .build();
+    }
+
+    /**
+     * 청크 쓰기 재시도 대기 정책
+     * 대기 시간이 multiplier 배씩 늘어나고, 매번 1 ~ multiplier 사이의 임의의 값을 곱해서 경합한 스레드들의 재시도 시점을 흩어 놓는다.
+     */
+    private ExponentialRandomBackOffPolicy inactiveWriteBackOffPolicy() {
+        InactiveUserJobProperties.Retry retry = inactiveUserJobProperties.getRetry();
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(retry.getInitialIntervalMillis());
+        backOffPolicy.setMultiplier(retry.getMultiplier());
+        backOffPolicy.setMaxInterval(retry.getMaxIntervalMillis());
+        return backOffPolicy;
+    }
+
+    /**
+     * 청크 크기 결정 정책
+     * Job 파라미터 chunkSize(없으면 inactive-user-job.chunk.size)로 시작해서,
+     * adaptive 설정이 켜져 있으면 청크 처리 시간이 targetMillis에 가까워지도록 minSize ~ maxSize 범위에서 조절한다.
+     * 파티션마다 따로 조절하도록 @StepScope로 등록한다.
+     * @return
+     */
+    @Bean
+    @StepScope
+    public AdaptiveCompletionPolicy inactiveChunkCompletionPolicy(@Value("#{jobParameters[chunkSize]}") Long chunkSize,
+                                                                  MeterRegistry meterRegistry) {
+        InactiveUserJobProperties.Chunk chunk = inactiveUserJobProperties.getChunk();
+        int initialChunkSize = chunkSize(chunkSize);
+        if (!chunk.isAdaptive()) {
+            return new AdaptiveCompletionPolicy("inactiveUserStep", initialChunkSize, initialChunkSize, initialChunkSize, chunk.getTargetMillis(),
+                    meterRegistry);
+        }
+        return new AdaptiveCompletionPolicy("inactiveUserStep", initialChunkSize, chunk.getMinSize(), chunk.getMaxSize(), chunk.getTargetMillis(),
+                meterRegistry);
+    }
+
+    private int chunkSize(Long chunkSizeParameter) {
+        return ObjectUtils.isEmpty(chunkSizeParameter) ? inactiveUserJobProperties.getChunk().getSize() : chunkSizeParameter.intValue();
+    }
+
+    /**
+     * Partitioner가 전달한 수정일 조건, 파티션 없이 실행되면 전체 조회 / 현재 시각 - 1년을 사용한다.
+     */
+    private LocalDateTime updatedFrom(Date updatedFrom) {
+        Date from = ObjectUtils.isEmpty(updatedFrom) ? InactiveUserCutoffListener.FULL_SCAN_FROM : updatedFrom;
+        return LocalDateTime.ofInstant(from.toInstant(), ZoneId.systemDefault());
+    }
+
+    private LocalDateTime updatedBefore(Date updatedBefore) {
+        if (ObjectUtils.isEmpty(updatedBefore)) {
+            return LocalDateTime.now().minusYears(1);
+        }
+        return LocalDateTime.ofInstant(updatedBefore.toInstant(), ZoneId.systemDefault());
+    }
+
 //    @Bean
     public Flow inactiveJobFlow(Step inactiveJobStep) {
         FlowBuilder<Flow> flowBuilder = new FlowBuilder<>("inactiveJobFlow");
@@ -176,12 +436,135 @@ public class InactiveUserJobConfig {
 //        return new ListItemReader<>(inactiveUsers);
 //    }
 
+//    @Bean
+//    @StepScope
+//    public ListItemReader<User> inactiveUserReader(@Value("#{stepExecutionContext[grade]}") String grade, UserRepository userRepository) {
+//        log.info(Thread.currentThread().getName());
+//        List<User> inactiveUsers = userRepository.findByUpdatedDateBeforeAndStatusEqualsAndGradeEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE, Grade.valueOf(grade));
+//        return new ListItemReader<>(inactiveUsers);
+//    }
+
+    /**
+     * 키셋 페이징 Reader
+     * 대상 전체를 ListItemReader에 올리지 않고, 마지막으로 읽은 id 이후의 데이터만 청크 크기만큼씩 조회한다.
+     * 파티션으로 실행되면 InactiveUserPartitioner가 나눈 id 구간(minId ~ maxId)만 조회한다.
+     * @return
+     */
     @Bean
     @StepScope
-    public ListItemReader<User> inactiveUserReader(@Value("#{stepExecutionContext[grade]}") String grade, UserRepository userRepository) {
+    public JpaKeysetPagingItemReader<User> inactiveUserReader(@Value("#{stepExecutionContext[minId]}") Long minId,
+                                                              @Value("#{stepExecutionContext[maxId]}") Long maxId,
+                                                              @Value("#{stepExecutionContext[updatedFrom]}") Date updatedFrom,
+                                                              @Value("#{stepExecutionContext[updatedBefore]}") Date updatedBefore,
+                                                              @Value("#{jobParameters[chunkSize]}") Long chunkSize) {
         log.info(Thread.currentThread().getName());
-        List<User> inactiveUsers = userRepository.findByUpdatedDateBeforeAndStatusEqualsAndGradeEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE, Grade.valueOf(grade));
-        return new ListItemReader<>(inactiveUsers);
+        JpaKeysetPagingItemReader<User> keysetReader = new JpaKeysetPagingItemReader<>();
+        keysetReader.setName("inactiveUserReader");
+        keysetReader.setQueryString("select u from User u" +
+                " where u.id > :lastId and u.id <= :maxId and u.updatedDate >= :updatedFrom and u.updatedDate < :updatedDate and u.status = :status" +
+                " order by u.id");
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("maxId", ObjectUtils.isEmpty(maxId) ? Long.MAX_VALUE : maxId);
+        map.put("updatedFrom", updatedFrom(updatedFrom));
+        map.put("updatedDate", updatedBefore(updatedBefore));
+        map.put("status", UserStatus.ACTIVE);
+
+        keysetReader.setParameterValues(map);
+        keysetReader.setEntityManagerFactory(entityManagerFactory);
+        keysetReader.setIdExtractor(User::getId);
+        keysetReader.setStartAfterId(ObjectUtils.isEmpty(minId) ? 0L : minId - 1);
+        keysetReader.setPageSize(chunkSize(chunkSize));
+        // inactiveUserStep은 chunkTaskExecutor로 실행되므로 마지막 id가 다른 스레드의 커밋되지 않은 청크에서 올 수 있다.
+        // 롤백된 청크를 건너뛰고 재시작하지 않도록 상태를 저장하지 않고 파티션 구간 처음부터 다시 읽는다(이미 전환된 회원은 조건에서 빠진다).
+        // 미리 읽기 Reader로 감싸면 커밋된 청크 기준으로 위치를 골라 저장하므로 그때만 저장한다.
+        keysetReader.setSaveState(inactiveUserJobProperties.getPrefetch().isEnabled());
+        return keysetReader;
+    }
+
+    /**
+     * id 블록 Reader
+     * 파티션의 id 구간(minId ~ maxId)에서 휴면 전환 대상 id만 청크 크기씩 long 배열로 읽는다.
+     * @return
+     */
+    @Bean
+    @StepScope
+    public InactiveUserIdBlockReader inactiveUserIdReader(@Value("#{stepExecutionContext[minId]}") Long minId,
+                                                          @Value("#{stepExecutionContext[maxId]}") Long maxId,
+                                                          @Value("#{stepExecutionContext[updatedFrom]}") Date updatedFrom,
+                                                          @Value("#{stepExecutionContext[updatedBefore]}") Date updatedBefore,
+                                                          @Value("#{jobParameters[chunkSize]}") Long chunkSize,
+                                                          UserJdbcRepository userJdbcRepository) {
+        InactiveUserIdBlockReader idBlockReader = new InactiveUserIdBlockReader(userJdbcRepository,
+                updatedFrom(updatedFrom),
+                updatedBefore(updatedBefore),
+                ObjectUtils.isEmpty(minId) ? 0L : minId - 1,
+                ObjectUtils.isEmpty(maxId) ? Long.MAX_VALUE : maxId,
+                chunkSize(chunkSize));
+        idBlockReader.setName("inactiveUserIdReader");
+        // inactiveUserIdStep도 chunkTaskExecutor로 실행되므로 inactiveUserReader처럼 위치를 저장하지 않고 파티션 구간 처음부터 다시 읽는다.
+        idBlockReader.setSaveState(false);
+        return idBlockReader;
+    }
+
+    /**
+     * 커서 Reader
+     * JpaPagingItemReader처럼 페이지마다 쿼리를 다시 실행하지 않고, 파티션의 대상 전체를 한번의 쿼리로 열어 둔 커서에서 fetchSize만큼씩 가져온다.
+     * StatelessSession을 사용하므로 1차 캐시와 변경 감지 스냅샷이 없어 읽은 건수와 관계없이 메모리 사용량이 일정하다.
+     *
+     * 커서는 여러 스레드가 동시에 읽을 수 없으므로 SynchronizedItemStreamReader로 감싼다.
+     * 멀티 스레드 Step에서는 읽은 건수 기준 재시작 정보가 맞지 않으므로 상태를 저장하지 않는다.
+     * @return
+     */
+    @Bean(destroyMethod = "")
+    @StepScope
+    public SynchronizedItemStreamReader<User> inactiveUserCursorReader(@Value("#{stepExecutionContext[minId]}") Long minId,
+                                                                       @Value("#{stepExecutionContext[maxId]}") Long maxId,
+                                                                       @Value("#{stepExecutionContext[updatedFrom]}") Date updatedFrom,
+                                                                       @Value("#{stepExecutionContext[updatedBefore]}") Date updatedBefore) {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("minId", ObjectUtils.isEmpty(minId) ? 0L : minId);
+        map.put("maxId", ObjectUtils.isEmpty(maxId) ? Long.MAX_VALUE : maxId);
+        map.put("updatedFrom", updatedFrom(updatedFrom));
+        map.put("updatedDate", updatedBefore(updatedBefore));
+        map.put("status", UserStatus.ACTIVE);
+
+        HibernateCursorItemReader<User> cursorReader = new HibernateCursorItemReaderBuilder<User>()
+                .name("inactiveUserCursorReader")
+                .sessionFactory(entityManagerFactory.unwrap(SessionFactory.class))
+                .queryString("select u from User u" +
+                        " where u.id >= :minId and u.id <= :maxId and u.updatedDate >= :updatedFrom and u.updatedDate < :updatedDate and u.status = :status" +
+                        " order by u.id")
+                .parameterValues(map)
+                .useStatelessSession(true)
+                .fetchSize(inactiveUserJobProperties.getCursor().getFetchSize())
+                .saveState(false)
+                .build();
+
+        SynchronizedItemStreamReader<User> synchronizedReader = new SynchronizedItemStreamReader<>();
+        synchronizedReader.setDelegate(cursorReader);
+        return synchronizedReader;
+    }
+
+    /**
+     * 미리 읽기 Reader
+     * inactive-user-job.reader 설정에 따라 키셋 또는 커서 Reader를 감싸서 청크 크기 * prefetch.chunks 건까지 미리 읽는다.
+     * 파티션마다 읽기 작업과 큐가 따로 있어야 하므로 @StepScope로 등록한다.
+     * 스냅샷 간격은 처음 청크 크기로 두고, 저장할 위치는 청크 크기와 관계없이 커밋된 청크 기준으로 정한다.
+     * @return
+     */
+    @Bean(destroyMethod = "")
+    @StepScope
+    public PrefetchingItemReader<User> inactiveUserPrefetchReader(JpaKeysetPagingItemReader<User> inactiveUserReader,
+                                                                  SynchronizedItemStreamReader<User> inactiveUserCursorReader,
+                                                                  TaskExecutor prefetchTaskExecutor,
+                                                                  @Value("#{jobParameters[chunkSize]}") Long chunkSize) {
+        ItemStreamReader<User> delegate = inactiveUserJobProperties.getReader() == InactiveUserJobProperties.ReaderType.CURSOR
+                ? inactiveUserCursorReader : inactiveUserReader;
+        int batchSize = chunkSize(chunkSize);
+        PrefetchingItemReader<User> prefetchingReader = new PrefetchingItemReader<>(delegate, prefetchTaskExecutor,
+                batchSize * inactiveUserJobProperties.getPrefetch().getChunks(), batchSize);
+        prefetchingReader.setName("inactiveUserPrefetchReader");
+        return prefetchingReader;
     }
 
     /**
@@ -192,7 +575,7 @@ public class InactiveUserJobConfig {
     // destroyMethod=""와 같이 사용하여, 기능을 사용하지 않도록 설정하면 실행 시 warning 메시지를 삭제할 수 있다.
     @Bean(destroyMethod = "")
     @StepScope
-    public JpaPagingItemReader<User> inactiveUserJpaReader() {
+    public JpaPagingItemReader<User> inactiveUserJpaReader(@Value("#{jobParameters[chunkSize]}") Long chunkSize) {
         /**
          * JpaPagingItemReader를 사용할 경우, Limit 인덱스 시작점이 바뀌는 현상이 있다.
          * 따라서, 조회용 인덱스값을 항상 0으로 반환하여 문제를 해결한다.
@@ -211,7 +594,7 @@ public class InactiveUserJobConfig {
 
         jpaPagingItemReader.setParameterValues(map);
         jpaPagingItemReader.setEntityManagerFactory(entityManagerFactory);
-        jpaPagingItemReader.setPageSize(CHUNK_SIZE);
+        jpaPagingItemReader.setPageSize(chunkSize(chunkSize));
         return jpaPagingItemReader;
     }
 
@@ -219,9 +602,28 @@ public class InactiveUserJobConfig {
      * 제네릭에 저장할 타입을 명시하고 EntityManagerFactory만 설정하면 Processor에서 넘어온 데이터를 청크 단위로 저장한다.
      * @return
      */
-    private JpaItemWriter<User> inactiveUserWriter() {
-        JpaItemWriter<User> jpaItemWriter = new JpaItemWriter<>();
-        jpaItemWriter.setEntityManagerFactory(entityManagerFactory);
-        return jpaItemWriter;
+//    private JpaItemWriter<User> inactiveUserWriter() {
+//        JpaItemWriter<User> jpaItemWriter = new JpaItemWriter<>();
+//        jpaItemWriter.setEntityManagerFactory(entityManagerFactory);
+//        return jpaItemWriter;
+//    }
+
+    /**
+     * 청크의 id를 모아 한번의 UPDATE 쿼리로 휴면 전환한다.
+     * Step마다 실제 변경 건수를 따로 집계하기 위해 @StepScope로 등록한다.
+     * @return
+     */
+    @Bean
+    @StepScope
+    public InactiveUserBulkWriter inactiveUserWriter(UserJdbcRepository userJdbcRepository,
+                                                     @Value("#{stepExecutionContext[updatedBefore]}") Date updatedBefore) {
+        return new InactiveUserBulkWriter(userJdbcRepository, updatedBefore(updatedBefore));
+    }
+
+    @Bean
+    @StepScope
+    public InactiveUserIdBlockWriter inactiveUserIdWriter(UserJdbcRepository userJdbcRepository,
+                                                          @Value("#{stepExecutionContext[updatedBefore]}") Date updatedBefore) {
+        return new InactiveUserIdBlockWriter(userJdbcRepository, updatedBefore(updatedBefore));
     }
 }
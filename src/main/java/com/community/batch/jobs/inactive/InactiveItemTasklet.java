@@ -1,38 +1,239 @@
 package com.community.batch.jobs.inactive;
 
 import com.community.batch.core.step.tasklet.Tasklet;
-import com.community.batch.domain.User;
-import com.community.batch.domain.enums.UserStatus;
-import com.community.batch.repository.UserRepository;
+import com.community.batch.jobs.inactive.listener.InactiveUserCutoffListener;
+import com.community.batch.jobs.staging.IdSpillStore;
+import com.community.batch.jobs.staging.InactiveIdStagingArea;
+import com.community.batch.repository.UserJdbcRepository;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+/**
+ * 휴면회원 전환 Tasklet
+ * inactive-user-job.tasklet.parallelism이 1이면 대상 id를 임시 파일에 모아 두고 sliceSize 개씩 회차마다 전환한다. (executeStaged)
+ * 대상 id 전체를 읽는 동안 트랜잭션을 잡고 있지 않도록 임시 파일은 Step의 beforeStep에서 청크 트랜잭션 밖에서 만든다.
+ * staging 설정을 끄면 회차마다 대상 id를 sliceSize 개씩 조회해서 전환한다. (executeSliced)
+ *
+ * 2 이상이면 병렬 모드로 실행된다.
+ * execute 한번에 (parallelism * sliceSize) 개의 대상 id를 조회해서 sliceSize 개씩 조각으로 나누고,
+ * 조각마다 별도 트랜잭션으로 ForkJoinPool에서 동시에 전환한 뒤 CONTINUABLE을 반환한다.
+ * 앞에서부터 연속으로 커밋된 조각의 마지막 id를 Step의 ExecutionContext에 저장하므로,
+ * 실패 후 재시작하면 커밋되지 않은 첫 조각부터 다시 처리한다. (이미 전환된 회원은 status 조건으로 건너뛴다)
+ */
+@Slf4j
 @Component
 @AllArgsConstructor
-public class InactiveItemTasklet implements Tasklet {
+public class InactiveItemTasklet implements Tasklet, StepExecutionListener {
 
-    private UserRepository userRepository;
+    private static final String LAST_ID = "inactiveItemTasklet.last.id";
+    private static final String STAGED_POSITION = "inactiveItemTasklet.staged.position";
+
+    private UserJdbcRepository userJdbcRepository;
+    private PlatformTransactionManager transactionManager;
+    private ForkJoinPool inactiveForkJoinPool;
+    private InactiveUserJobProperties inactiveUserJobProperties;
+    private InactiveIdStagingArea inactiveIdStagingArea;
+
+    /**
+     * 회차(청크 트랜잭션)마다 호출되는 execute 대신 Step 시작 시 한번 대상 id를 임시 파일에 모은다.
+     */
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        if (inactiveForkJoinPool.getParallelism() > 1 || !inactiveUserJobProperties.getStaging().isEnabled()) {
+            return;
+        }
+        if (inactiveIdStagingArea.get(stepExecution.getJobExecutionId()) != null) {
+            return;
+        }
+        try {
+            stage(stepExecution.getJobExecutionId(), new StepContext(stepExecution).getJobExecutionContext());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stepExecution.getExecutionContext().putLong(STAGED_POSITION, 0L);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (inactiveForkJoinPool.getParallelism() > 1) {
+            return executeParallel(contribution, chunkContext);
+        }
+        if (inactiveUserJobProperties.getStaging().isEnabled()) {
+            return executeStaged(contribution, chunkContext);
+        }
+        return executeSliced(contribution, chunkContext);
+    }
+
+    /**
+     * 회차마다 마지막으로 커밋한 id 다음부터 sliceSize 개의 대상 id를 조회해서 전환한다.
+     * 회차마다 Tasklet Step의 트랜잭션이 커밋되므로 실패 후 재시작하면 커밋된 다음 조각부터 처리한다.
+     */
+    private RepeatStatus executeSliced(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        Map<String, Object> jobExecutionContext = chunkContext.getStepContext().getJobExecutionContext();
+
         // reader
-        Date nowDate = (Date) chunkContext.getStepContext().getJobParameters().get("nowDate");
-        LocalDateTime now = LocalDateTime.ofInstant(nowDate.toInstant(), ZoneId.systemDefault());
-        List<User> inactiveUsers = userRepository.findByUpdatedDateBeforeAndStatusEquals(now.minusYears(1), UserStatus.ACTIVE);
-        // processor
-        inactiveUsers = inactiveUsers.stream().map(User::setInactive).collect(Collectors.toList());
-
-        // writer
-        userRepository.saveAll(inactiveUsers);
+        long[] ids = new long[inactiveUserJobProperties.getTasklet().getSliceSize()];
+        LocalDateTime updatedBefore = updatedBefore(jobExecutionContext);
+        int size = userJdbcRepository.findInactiveCandidateIds(executionContext.getLong(LAST_ID, 0L), Long.MAX_VALUE,
+                updatedFrom(jobExecutionContext), updatedBefore, ids);
+        if (size == 0) {
+            return RepeatStatus.FINISHED;
+        }
+
+        // processor + writer
+        int updated = userJdbcRepository.updateInactive(ids, size, updatedBefore, LocalDateTime.now());
+        contribution.incrementWriteCount(updated);
+        contribution.incrementFilterCount(size - updated); // 이미 INACTIVE였던 회원
+        executionContext.putLong(LAST_ID, ids[size - 1]);
+        return size < ids.length ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    /**
+     * beforeStep에서 임시 파일(IdSpillStore)에 모아 둔 대상 id를 회차마다 sliceSize 개씩 읽어서 전환한다.
+     * 힙에는 sliceSize 개의 id만 올라가므로 대상이 힙보다 많아도 된다.
+     * 임시 파일은 Job이 끝나면 InactiveIdStagingArea가 삭제하고, 재시작하면 다시 모은다. (이미 전환된 회원은 조회되지 않는다)
+     */
+    private RepeatStatus executeStaged(StepContribution contribution, ChunkContext chunkContext) throws IOException {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        long[] ids = new long[inactiveUserJobProperties.getTasklet().getSliceSize()];
+
+        IdSpillStore store = inactiveIdStagingArea.get(stepExecution.getJobExecutionId());
+        if (store == null) {
+            throw new IllegalStateException("Inactive user ids are not staged for job execution " + stepExecution.getJobExecutionId());
+        }
+
+        // reader: 임시 파일에서 이번 회차의 id만 읽는다.
+        long position = executionContext.getLong(STAGED_POSITION, 0L);
+        int size = store.read(position, ids);
+
+        // processor + writer
+        int updated = userJdbcRepository.updateInactive(ids, size,
+                updatedBefore(chunkContext.getStepContext().getJobExecutionContext()), LocalDateTime.now());
+        contribution.incrementWriteCount(updated);
+        contribution.incrementFilterCount(size - updated); // 이미 INACTIVE였던 회원
+        executionContext.putLong(STAGED_POSITION, position + size);
+        if (position + size < store.size()) {
+            return RepeatStatus.CONTINUABLE;
+        }
+        inactiveIdStagingArea.release(stepExecution.getJobExecutionId());
         return RepeatStatus.FINISHED;
     }
+
+    private void stage(Long jobExecutionId, Map<String, Object> jobExecutionContext) throws IOException {
+        IdSpillStore store = inactiveIdStagingArea.create(jobExecutionId);
+        LocalDateTime updatedFrom = updatedFrom(jobExecutionContext);
+        LocalDateTime updatedBefore = updatedBefore(jobExecutionContext);
+        long[] buffer = new long[inactiveUserJobProperties.getTasklet().getSliceSize()];
+        long lastId = 0L;
+        int size;
+        do {
+            size = userJdbcRepository.findInactiveCandidateIds(lastId, Long.MAX_VALUE, updatedFrom, updatedBefore, buffer);
+            store.append(buffer, size);
+            if (size > 0) {
+                lastId = buffer[size - 1];
+            }
+        } while (size == buffer.length);
+        log.info("Staged {} inactive user ids to {}", store.size(), store.getPath());
+    }
+
+    private RepeatStatus executeParallel(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        Map<String, Object> jobExecutionContext = chunkContext.getStepContext().getJobExecutionContext();
+        int sliceSize = inactiveUserJobProperties.getTasklet().getSliceSize();
+
+        // reader: 이번 회차에 처리할 id만 조회한다.
+        long[] ids = new long[inactiveForkJoinPool.getParallelism() * sliceSize];
+        LocalDateTime updatedBefore = updatedBefore(jobExecutionContext);
+        int size = userJdbcRepository.findInactiveCandidateIds(executionContext.getLong(LAST_ID, 0L), Long.MAX_VALUE,
+                updatedFrom(jobExecutionContext), updatedBefore, ids);
+        if (size == 0) {
+            return RepeatStatus.FINISHED;
+        }
+
+        // processor + writer: 조각마다 별도 트랜잭션으로 병렬 전환
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime updatedDate = LocalDateTime.now();
+        List<ForkJoinTask<Integer>> slices = new ArrayList<>();
+        for (int from = 0; from < size; from += sliceSize) {
+            long[] slice = Arrays.copyOfRange(ids, from, Math.min(size, from + sliceSize));
+            slices.add(inactiveForkJoinPool.submit(() ->
+                    transactionTemplate.execute(status -> userJdbcRepository.updateInactive(slice, slice.length, updatedBefore, updatedDate))));
+        }
+
+        int processed = 0;
+        int updated = 0;
+        RuntimeException failure = null;
+        for (int i = 0; i < slices.size(); i++) {
+            int sliceEnd = Math.min(size, (i + 1) * sliceSize);
+            try {
+                updated += slices.get(i).join();
+                processed = sliceEnd;
+                executionContext.putLong(LAST_ID, ids[sliceEnd - 1]);
+            } catch (RuntimeException e) {
+                failure = e;
+                // 뒤쪽 조각이 실행 중인 채로 Step이 끝나지 않도록 모두 기다린다.
+                slices.subList(i + 1, slices.size()).forEach(ForkJoinTask::quietlyJoin);
+                break;
+            }
+        }
+        if (failure != null) {
+            // 예외를 던지면 이번 회차의 contribution은 버려지므로, 이미 커밋된 조각의 건수는 StepExecution에 직접 더한다.
+            StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+            stepExecution.setWriteCount(stepExecution.getWriteCount() + updated);
+            stepExecution.setFilterCount(stepExecution.getFilterCount() + processed - updated);
+            log.error("Inactive user slice failed after {} committed users, resume after id {}",
+                    processed, executionContext.getLong(LAST_ID, 0L));
+            throw failure;
+        }
+        contribution.incrementWriteCount(updated);
+        contribution.incrementFilterCount(processed - updated); // 이미 INACTIVE였던 회원
+        return size < ids.length ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    // InactiveUserCutoffListener가 저장한 수정일 조건
+    private LocalDateTime updatedFrom(Map<String, Object> jobExecutionContext) {
+        return toLocalDateTime((Date) jobExecutionContext.getOrDefault(
+                InactiveUserCutoffListener.UPDATED_FROM, InactiveUserCutoffListener.FULL_SCAN_FROM));
+    }
+
+    private LocalDateTime updatedBefore(Map<String, Object> jobExecutionContext) {
+        Date updatedBefore = (Date) jobExecutionContext.get(InactiveUserCutoffListener.UPDATED_BEFORE);
+        return updatedBefore == null ? LocalDateTime.now().minusYears(1) : toLocalDateTime(updatedBefore);
+    }
+
+    private LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
 }
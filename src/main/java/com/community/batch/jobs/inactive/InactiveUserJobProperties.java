@@ -0,0 +1,362 @@
+package com.community.batch.jobs.inactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 휴면회원 배치 설정 (application.yml의 inactive-user-job 하위 값)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inactive-user-job")
+public class InactiveUserJobProperties {
+
+    /**
+     * partitionerStep의 파티션 개수, 기본값은 CPU 코어 수
+     */
+    private int gridSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 멀티 스레드 inactiveJobStep에서 동시에 실행할 청크 스레드 수
+     */
+    private int throttleLimit = 2;
+
+    /**
+     * true면 User 엔티티 대신 id만 읽어서 long 배열 블록 단위로 휴면 전환한다. (inactiveUserIdStep)
+     */
+    private boolean idOnly = false;
+
+    /**
+     * true면 마지막으로 완료된 실행의 기준 시각 이후에 수정된 회원만 조회한다. (InactiveUserCutoffListener)
+     * Job 파라미터 fullScan=true로 실행하면 전체를 조회한다.
+     */
+    private boolean incremental = false;
+
+    /**
+     * true면 엔티티 방식 Step의 Processor를 AsyncItemProcessor로 감싸서 processorTaskExecutor에서 아이템별로 동시에 실행한다.
+     */
+    private boolean asyncProcessor = false;
+
+    /**
+     * 엔티티 방식 Step의 Reader 종류
+     * KEYSET: 청크 크기만큼씩 id > 마지막 id 조건으로 다시 조회한다.
+     * CURSOR: 파티션당 한번의 쿼리를 서버 커서로 끝까지 읽는다. (StatelessSession)
+     */
+    private ReaderType reader = ReaderType.KEYSET;
+
+    private final Chunk chunk = new Chunk();
+
+    private final Cursor cursor = new Cursor();
+
+    private final Tasklet tasklet = new Tasklet();
+
+    private final Prefetch prefetch = new Prefetch();
+
+    private final DynamicPartition dynamicPartition = new DynamicPartition();
+
+    private final Retry retry = new Retry();
+
+    private final Staging staging = new Staging();
+
+    private final Executor executor = new Executor();
+
+    private final Remote remote = new Remote();
+
+    private final Notice notice = new Notice();
+
+    private final Metadata metadata = new Metadata();
+
+    @Getter
+    @Setter
+    public static class Chunk {
+
+        /**
+         * 청크(커밋) 크기이자 Reader의 페이지 크기, Job 파라미터 chunkSize가 있으면 그 값을 사용한다.
+         */
+        private int size = 100;
+
+        /**
+         * true면 청크 처리 시간에 맞춰 minSize ~ maxSize 범위에서 청크 크기를 조절한다.
+         */
+        private boolean adaptive = true;
+
+        private int minSize = 10;
+
+        private int maxSize = 1000;
+
+        /**
+         * 청크 하나(읽기부터 커밋까지)의 목표 처리 시간(ms)
+         */
+        private long targetMillis = 500L;
+    }
+
+    @Getter
+    @Setter
+    public static class Cursor {
+
+        /**
+         * 커서에서 한번에 가져올 행 수
+         * MySQL은 접속 URL에 useCursorFetch=true가 있어야 fetchSize만큼씩 가져오고, 없으면 결과 전체를 메모리에 올린다.
+         */
+        private int fetchSize = 1000;
+    }
+
+    /**
+     * 파티셔닝 없이 InactiveItemTasklet 하나로 처리하는 모드 설정
+     * 대상 id를 sliceSize 개씩 나누고, 조각마다 별도 트랜잭션으로 ForkJoinPool에서 병렬로 전환한다.
+     */
+    @Getter
+    @Setter
+    public static class Tasklet {
+
+        /**
+         * true면 inactiveUserJob이 partitionerStep 대신 inactiveTaskletStep을 실행한다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * ForkJoinPool 병렬 수준, 커넥션 풀 크기를 넘으면 커넥션 풀 기준으로 줄어든다. 1이면 기존처럼 한번에 처리한다.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 트랜잭션 하나에서 전환할 최대 회원 수
+         */
+        private int sliceSize = 1000;
+    }
+
+    /**
+     * 엔티티 방식 Step의 미리 읽기 설정 (PrefetchingItemReader)
+     */
+    @Getter
+    @Setter
+    public static class Prefetch {
+
+        /**
+         * true면 별도 스레드가 Reader에서 다음 청크들을 미리 읽어 둔다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 미리 읽어 둘 청크 수, 큐 크기는 청크 크기 * chunks
+         */
+        private int chunks = 2;
+    }
+
+    /**
+     * 동적 파티셔닝 설정
+     * gridSize 개의 큰 구간 대신 작은 작업 단위를 많이 만들어 파티션 스레드가 끝나는 대로 다음 단위를 가져가게 한다.
+     */
+    @Getter
+    @Setter
+    public static class DynamicPartition {
+
+        private boolean enabled = false;
+
+        /**
+         * 작업 단위 하나의 id 구간 크기, 단위마다 StepExecution이 생기므로 너무 작으면 메타데이터 기록이 늘어난다.
+         */
+        private long unitSize = 10_000L;
+    }
+
+    /**
+     * 청크 쓰기 재시도 설정
+     * 데드락, 락 대기 시간 초과(PessimisticLockingFailureException)로 쓰기가 실패하면 청크를 롤백하고 다시 처리한다.
+     * 경합한 스레드들이 같은 시각에 다시 부딪히지 않도록 대기 시간에 임의의 값(jitter)을 곱한다.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * 첫 시도를 포함한 최대 시도 횟수
+         */
+        private int limit = 3;
+
+        private long initialIntervalMillis = 50L;
+
+        private double multiplier = 2.0;
+
+        private long maxIntervalMillis = 1000L;
+    }
+
+    /**
+     * Tasklet 모드(parallelism 1)의 대상 id 임시 저장 설정 (IdSpillStore)
+     * 대상 id를 힙 대신 임시 파일에 모아 두고 sliceSize 개씩 읽어서 회차마다 커밋한다.
+     */
+    @Getter
+    @Setter
+    public static class Staging {
+
+        /**
+         * false면 기존처럼 대상 User 전체를 List로 조회해서 한번에 저장한다.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 임시 파일을 만들 디렉토리
+         */
+        private String directory = System.getProperty("java.io.tmpdir");
+
+        /**
+         * 읽기/쓰기 버퍼에 담을 id 개수, 힙 밖(direct buffer)에 id당 8바이트를 사용한다.
+         */
+        private int bufferSize = 8192;
+    }
+
+    public enum ReaderType {
+        KEYSET, CURSOR
+    }
+
+    @Getter
+    @Setter
+    public static class Executor {
+
+        /**
+         * JobRepository 메타데이터 갱신 등 청크 스레드 외의 용도로 남겨둘 커넥션 수
+         */
+        private int reservedConnections = 2;
+
+        /**
+         * 청크 실행 스레드 풀의 대기 큐 크기, 가득 차면 제출한 스레드에서 직접 실행한다.
+         */
+        private int chunkQueueCapacity = 100;
+
+        /**
+         * AsyncItemProcessor 실행 스레드 수, 기본값은 CPU 코어 수
+         */
+        private int processorThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * AsyncItemProcessor 실행 스레드 풀의 대기 큐 크기, 가득 차면 청크 스레드에서 직접 처리한다.
+         */
+        private int processorQueueCapacity = 1000;
+
+        /**
+         * true이고 JDK가 지원하면(JDK 21 이상) 스레드 풀 대신 가상 스레드를 사용한다.
+         * 이때도 동시 실행 수는 커넥션 풀 크기에서 계산한 값으로 제한된다.
+         */
+        private boolean virtualThreads = false;
+    }
+
+    /**
+     * 원격 파티셔닝 설정
+     * manager 노드는 파티션을 나눠 StepExecutionRequest를 inactiveUserRequests 채널로 보내고,
+     * worker 노드는 채널에서 요청을 받아 inactiveJobStep을 실행한다. 실행 결과는 공유 JobRepository로 확인한다.
+     */
+    @Getter
+    @Setter
+    public static class Remote {
+
+        /**
+         * true면 partitionerStep이 파티션을 로컬 스레드 대신 inactiveUserRequests 채널로 보낸다.
+         */
+        private boolean manager = false;
+
+        /**
+         * true면 이 노드가 inactiveUserRequests 채널을 구독해서 파티션을 실행한다.
+         */
+        private boolean worker = false;
+
+        /**
+         * local이면 파티션 실행 스레드 풀을 쓰는 프로세스 내부 채널을 사용한다.
+         * 다른 값이면 브로커 기반 SubscribableChannel(예: JMS 채널)을 inactiveUserRequests 이름의 빈으로 직접 등록해야 한다.
+         */
+        private String transport = "local";
+
+        /**
+         * manager가 JobRepository에서 worker 실행 결과를 확인하는 주기(ms)
+         */
+        private long pollInterval = 1000L;
+
+        /**
+         * manager가 모든 파티션 완료를 기다리는 최대 시간(ms), 음수면 제한 없음
+         */
+        private long timeout = -1L;
+    }
+
+    /**
+     * 휴면 전환 안내 발송 설정 (inactiveNoticeStep)
+     * 휴면 전환 Step이 끝난 뒤 이번 실행에서 전환된 회원에게 안내를 보낸다.
+     */
+    @Getter
+    @Setter
+    public static class Notice {
+
+        /**
+         * true면 inactiveUserJob이 휴면 전환 다음에 inactiveNoticeStep을 실행한다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 초당 발송 수 (토큰 버킷 충전 속도)
+         */
+        private double permitsPerSecond = 50.0;
+
+        /**
+         * 한번에 몰아서 보낼 수 있는 최대 발송 수 (토큰 버킷 크기)
+         */
+        private int burst = 50;
+
+        /**
+         * 동시에 발송할 스레드 수, 발송은 DB 커넥션을 사용하지 않으므로 커넥션 풀과 관계없다.
+         */
+        private int threads = 4;
+
+        /**
+         * 청크(커밋) 크기이자 Reader의 페이지 크기
+         */
+        private int chunkSize = 100;
+
+        /**
+         * 발송 한 건을 기다리는 최대 시간(ms)
+         */
+        private long sendTimeoutMillis = 10_000L;
+
+        /**
+         * memory면 실제로 보내지 않는 InMemoryInactiveNoticeSender를 사용한다.
+         * 다른 값이면 InactiveNoticeSender 빈을 직접 등록해야 한다.
+         */
+        private String sender = "memory";
+    }
+
+    /**
+     * JobRepository 메타데이터 기록 설정 (InactiveBatchConfigurer)
+     * 파티션이 많고 청크가 작으면 커밋마다 기록되는 BATCH_STEP_EXECUTION, BATCH_STEP_EXECUTION_CONTEXT 갱신이 DB 쓰기의 큰 비중을 차지한다.
+     */
+    @Getter
+    @Setter
+    public static class Metadata {
+
+        /**
+         * JDBC: BATCH_ 테이블에 기록한다.
+         * MEMORY: 메모리에만 기록한다. 재시작이 필요 없는 실행(preventRestart)에만 사용한다.
+         */
+        private RepositoryType repository = RepositoryType.JDBC;
+
+        /**
+         * ExecutionContext 직렬화 방식, BINARY로 바꿔도 JSON으로 저장된 기존 컨텍스트를 읽을 수 있다.
+         */
+        private SerializerType serializer = SerializerType.JSON;
+
+        /**
+         * 실행 중인 Step의 ExecutionContext와 StepExecution을 몇 청크마다 기록할지, 1이면 매 청크 기록한다.
+         * 비정상 종료 후 재시작하면 최대 이 수만큼의 청크를 다시 처리한다.
+         */
+        private int flushChunks = 1;
+
+        /**
+         * 마지막 기록 이후 이 시간(ms)이 지나면 flushChunks와 관계없이 기록한다. 0이면 사용하지 않는다.
+         */
+        private long flushMillis = 0L;
+    }
+
+    public enum RepositoryType {
+        JDBC, MEMORY
+    }
+
+    public enum SerializerType {
+        JSON, BINARY
+    }
+}
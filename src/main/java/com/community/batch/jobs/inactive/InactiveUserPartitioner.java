@@ -1,26 +1,137 @@
 package com.community.batch.jobs.inactive;
 
-import com.community.batch.domain.enums.Grade;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserJdbcRepository.IdRange;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ExecutionContext;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
-public class InactiveUserPartitioner implements Partitioner {
+/**
+ * 휴면 대상 회원의 id 범위(MIN ~ MAX)를 gridSize 개의 균등한 구간으로 나누는 Partitioner
+ * Grade 별로 나누면 파티션 수가 Grade Enum 개수(3개)로 고정되고, 등급별 회원 수 차이만큼 파티션 크기가 치우친다.
+ * 각 파티션의 구간은 stepExecutionContext의 minId, maxId로 전달되어 Reader의 조회 범위가 된다.
+ * 원격 worker도 같은 기준으로 조회하도록 수정일 조건(updatedFrom, updatedBefore)도 함께 전달한다.
+ *
+ * unitSize를 설정하면 gridSize와 관계없이 unitSize 개의 id씩 작은 작업 단위로 나눈다. (동적 파티셔닝)
+ * 작업 단위는 파티션 스레드 풀의 대기 큐에 쌓이고, 먼저 끝난 스레드가 다음 단위를 가져가므로
+ * 데이터 밀도나 락 경합으로 느린 구간이 있어도 다른 스레드가 놀지 않는다.
+ * 작업 단위마다 StepExecution이 JobRepository에 기록되므로 재시작하면 완료된 단위는 건너뛴다.
+ * 재시작 시 같은 구간으로 나누도록, 처음 계산한 id 범위를 partitionerStep의 ExecutionContext에 저장해 두고 다시 사용한다.
+ * StepExecutionSplitter는 partition() 호출 전에 ExecutionContext를 저장하므로, id 범위는 beforeStep에서 계산해 두어야 함께 저장된다.
+ */
+public class InactiveUserPartitioner implements Partitioner, StepExecutionListener {
 
-    private static final String GRADE = "grade";
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+    public static final String UPDATED_FROM = "updatedFrom";
+    public static final String UPDATED_BEFORE = "updatedBefore";
+    public static final String PARTITION_TAG = "partitionTag";
     private static final String INACTIVE_USER_TASK = "InactiveUserTask";
+    // partitionerStep의 ExecutionContext에 저장하는 전체 대상 수 (InactiveJobProgressTracker가 읽는다)
+    public static final String PLAN_TOTAL = "plan.total";
+    // 이번 실행(재시작 포함)을 시작할 때 남아 있던 대상 수, 재시작하면 이전 실행에서 전환된 회원은 빠진다.
+    public static final String PLAN_REMAINING = "plan.remaining";
+    private static final String PLAN_MIN_ID = "plan.minId";
+    private static final String PLAN_MAX_ID = "plan.maxId";
+    // 작업 단위가 많아도 메트릭 태그 수가 늘어나지 않도록 동적 파티셔닝에서는 같은 태그를 사용한다.
+    private static final String DYNAMIC_PARTITION_TAG = "InactiveUserUnit";
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final Date updatedFrom;
+    private final Date updatedBefore;
+    private long unitSize = 0L;
+    private ExecutionContext planContext;
+
+    public InactiveUserPartitioner(UserJdbcRepository userJdbcRepository, Date updatedFrom, Date updatedBefore) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.updatedFrom = updatedFrom;
+        this.updatedBefore = updatedBefore;
+    }
+
+    /**
+     * 0보다 크면 gridSize 대신 unitSize 개의 id 단위로 나눈다.
+     */
+    public void setUnitSize(long unitSize) {
+        this.unitSize = unitSize;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        planContext = stepExecution.getExecutionContext();
+        IdRange idRange = userJdbcRepository.findInactiveCandidateIdRange(toLocalDateTime(updatedFrom), toLocalDateTime(updatedBefore));
+        long remaining = idRange == null ? 0L : idRange.getCount();
+        if (!planContext.containsKey(PLAN_TOTAL)) {
+            if (idRange != null) {
+                planContext.putLong(PLAN_MIN_ID, idRange.getMinId());
+                planContext.putLong(PLAN_MAX_ID, idRange.getMaxId());
+            }
+            planContext.putLong(PLAN_TOTAL, remaining);
+        }
+        planContext.putLong(PLAN_REMAINING, remaining);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
 
     @Override
     public Map<String, ExecutionContext> partition(int gridSize) {
         Map<String, ExecutionContext> map = new HashMap<>(gridSize);
-        Grade[] grades = Grade.values();
-        for(int i = 0, length = grades.length; i < length; i++) {
-            ExecutionContext context = new ExecutionContext();
-            context.putString(GRADE, grades[i].name());
-            map.put(INACTIVE_USER_TASK + i, context);
+        IdRange idRange = findIdRange();
+        if (idRange == null) {
+            // 대상이 없어도 Step이 정상 종료되도록 빈 구간 하나를 만든다.
+            map.put(INACTIVE_USER_TASK + 0, createContext(0L, -1L, INACTIVE_USER_TASK + 0));
+            return map;
+        }
+
+        long span = idRange.getMaxId() - idRange.getMinId() + 1;
+        long rangeSize = unitSize > 0 ? unitSize : (span + gridSize - 1) / gridSize;
+        long minId = idRange.getMinId();
+        for (int i = 0; minId <= idRange.getMaxId(); i++) {
+            long maxId = Math.min(minId + rangeSize - 1, idRange.getMaxId());
+            String name = INACTIVE_USER_TASK + i;
+            map.put(name, createContext(minId, maxId, unitSize > 0 ? DYNAMIC_PARTITION_TAG : name));
+            minId = maxId + 1;
         }
         return map;
     }
+
+    /**
+     * beforeStep에서 저장한(재시작이면 처음 실행 때 저장한) id 범위
+     * 이미 전환된 회원은 다시 조회되지 않으므로, 재시작 때 새로 조회하면 구간이 달라져 완료된 단위와 맞지 않는다.
+     * Step 밖에서 바로 호출하면(beforeStep 없이) 대상 회원의 id 범위를 조회한다.
+     * @return 대상이 없으면 null
+     */
+    private IdRange findIdRange() {
+        if (planContext == null) {
+            return userJdbcRepository.findInactiveCandidateIdRange(toLocalDateTime(updatedFrom), toLocalDateTime(updatedBefore));
+        }
+        if (!planContext.containsKey(PLAN_MIN_ID)) {
+            return null;
+        }
+        return new IdRange(planContext.getLong(PLAN_MIN_ID), planContext.getLong(PLAN_MAX_ID), planContext.getLong(PLAN_TOTAL, 0L));
+    }
+
+    private ExecutionContext createContext(long minId, long maxId, String partitionTag) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID, minId);
+        context.putLong(MAX_ID, maxId);
+        context.put(UPDATED_FROM, updatedFrom);
+        context.put(UPDATED_BEFORE, updatedBefore);
+        context.putString(PARTITION_TAG, partitionTag);
+        return context;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
 }
@@ -1,17 +1,27 @@
 package com.community.batch.jobs.inactive.listener;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 배치 Listener
+ * Job 실행 시간을 히스토그램(inactive.job.duration)으로 기록해서 야간 배치의 SLO 기준으로 사용한다.
  */
 @Slf4j
 @Component
 public class InactiveIJobListener implements JobExecutionListener {
 
+    private final MeterRegistry meterRegistry;
+
+    public InactiveIJobListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public void beforeJob(JobExecution jobExecution) {
@@ -21,6 +31,13 @@ public class InactiveIJobListener implements JobExecutionListener {
     @Override
     public void afterJob(JobExecution jobExecution) {
         log.info("After Job");
+        // afterJob 호출 시점에는 endTime이 아직 설정되지 않았으므로 현재 시각까지를 실행 시간으로 본다.
+        long duration = System.currentTimeMillis() - jobExecution.getStartTime().getTime();
+        Timer.builder("inactive.job.duration")
+                .description("Duration of inactiveUserJob runs")
+                .tag("status", jobExecution.getStatus().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration, TimeUnit.MILLISECONDS);
     }
 }
-
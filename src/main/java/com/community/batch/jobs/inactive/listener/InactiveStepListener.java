@@ -1,22 +1,268 @@
 package com.community.batch.jobs.inactive.listener;
 
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.Grade;
+import com.community.batch.jobs.inactive.InactiveUserPartitioner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.AfterStep;
-import org.springframework.batch.core.annotation.BeforeStep;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemProcessor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 휴면회원 Step 계측 Listener
+ * 청크마다 읽기/처리/쓰기 시간을 Timer로, 파티션별 읽기/쓰기/스킵 건수와 등급별 전환 건수를 Counter로 기록하고
+ * 실행 중인 파티션 수를 Gauge로 노출한다.
+ *
+ * 아이템마다 호출되는 메서드는 스레드별로 한번만 만든 누적 객체에 시간만 더하고, 메트릭 기록은 청크가 끝날 때 한번 한다.
+ * 어노테이션 방식 Listener는 호출마다 리플렉션과 인자 배열 생성이 일어나므로 인터페이스로 구현한다.
+ *
+ * AsyncItemProcessor를 쓰면 청크 스레드의 process 호출은 제출만 하고 Writer에는 Future가 넘어온다.
+ * 처리 시간은 timed()로 감싼 delegate가 Processor 스레드에서 재고, 등급별 건수는 Future의 결과로 센다.
+ */
 @Slf4j
 @Component
-public class InactiveStepListener {
+public class InactiveStepListener implements StepExecutionListener, ChunkListener,
+        ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activePartitions;
+    private final Map<Long, StepMeters> stepMeters = new ConcurrentHashMap<>();
+    private final ThreadLocal<ChunkTimings> chunkTimings = ThreadLocal.withInitial(ChunkTimings::new);
 
-    @BeforeStep
+    public InactiveStepListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.activePartitions = meterRegistry.gauge("inactive.partitions.active", new AtomicInteger());
+    }
+
+    /**
+     * AsyncItemProcessor의 delegate를 감싸서 Processor 스레드에서 실제 처리 시간을 잰다.
+     * AsyncItemProcessor가 Processor 스레드에 StepExecution을 등록하므로 어느 파티션의 처리인지 알 수 있다.
+     */
+    public <I, O> ItemProcessor<I, O> timed(ItemProcessor<I, O> delegate) {
+        return item -> {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.process(item);
+            } finally {
+                StepContext context = StepSynchronizationManager.getContext();
+                StepMeters meters = context == null ? null : stepMeters.get(context.getStepExecution().getId());
+                if (meters != null) {
+                    meters.asyncProcessNanos.add(System.nanoTime() - startNanos);
+                }
+            }
+        };
+    }
+
+    @Override
     public void beforeStep(StepExecution stepExecution) {
         log.info("Before Step");
+        activePartitions.incrementAndGet();
+        // 파티션 태그가 없으면(파티션이 아닌 Step) Step 이름을 사용한다.
+        String partition = stepExecution.getExecutionContext().getString(InactiveUserPartitioner.PARTITION_TAG, stepExecution.getStepName());
+        stepMeters.put(stepExecution.getId(), new StepMeters(meterRegistry, partition));
     }
 
-    @AfterStep
-    public void afterStep(StepExecution stepExecution) {
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
         log.info("After Step");
+        activePartitions.decrementAndGet();
+        StepMeters meters = stepMeters.remove(stepExecution.getId());
+        if (meters != null) {
+            meters.read.increment(stepExecution.getReadCount());
+            meters.written.increment(stepExecution.getWriteCount());
+            meters.skipped.increment(stepExecution.getSkipCount());
+        }
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkTimings.get().reset();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepMeters meters = stepMeters.get(context.getStepContext().getStepExecution().getId());
+        if (meters == null) {
+            return;
+        }
+        ChunkTimings timings = chunkTimings.get();
+        meters.readTimer.record(timings.readNanos, TimeUnit.NANOSECONDS);
+        // 같은 파티션의 청크가 동시에 실행되면 비동기 처리 시간은 먼저 끝난 청크에 몰리지만 합계는 같다.
+        meters.processTimer.record(timings.processNanos + meters.asyncProcessNanos.sumThenReset(), TimeUnit.NANOSECONDS);
+        meters.writeTimer.record(timings.writeNanos, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < GRADES.length; i++) {
+            if (timings.writtenByGrade[i] > 0) {
+                meters.writtenByGrade[i].increment(timings.writtenByGrade[i]);
+            }
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+    }
+
+    @Override
+    public void beforeRead() {
+        chunkTimings.get().startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.readNanos += System.nanoTime() - timings.startNanos;
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        afterRead(null);
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        chunkTimings.get().startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        if (result instanceof Future) {
+            return; // 제출 시간이므로 기록하지 않는다. (timed()가 기록)
+        }
+        ChunkTimings timings = chunkTimings.get();
+        timings.processNanos += System.nanoTime() - timings.startNanos;
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        afterProcess(item, null);
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        chunkTimings.get().startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.writeNanos += System.nanoTime() - timings.startNanos;
+        for (int i = 0, size = items.size(); i < size; i++) {
+            Object item = items.get(i);
+            if (item instanceof Future) {
+                item = result((Future<?>) item);
+            }
+            if (item instanceof User && ((User) item).getGrade() != null) {
+                timings.writtenByGrade[((User) item).getGrade().ordinal()]++;
+            }
+        }
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.writeNanos += System.nanoTime() - timings.startNanos;
+    }
+
+    /**
+     * AsyncItemWriter가 쓰기 전에 모든 Future를 기다리므로 afterWrite에서는 이미 끝나 있다.
+     */
+    private static Object result(Future<?> future) {
+        if (!future.isDone()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 청크 스레드마다 하나씩 만들어 재사용하는 시간 누적 객체
+     */
+    private static class ChunkTimings {
+        private long startNanos;
+        private long readNanos;
+        private long processNanos;
+        private long writeNanos;
+        private final long[] writtenByGrade = new long[GRADES.length];
+
+        private void reset() {
+            readNanos = 0;
+            processNanos = 0;
+            writeNanos = 0;
+            for (int i = 0; i < writtenByGrade.length; i++) {
+                writtenByGrade[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * 파티션(StepExecution)별 메트릭, Step 시작 시 한번만 찾아두고 청크마다 재사용한다.
+     */
+    private static class StepMeters {
+        private final Timer readTimer;
+        private final Timer processTimer;
+        private final Timer writeTimer;
+        private final Counter read;
+        private final Counter written;
+        private final Counter skipped;
+        private final Counter[] writtenByGrade = new Counter[GRADES.length];
+        private final LongAdder asyncProcessNanos = new LongAdder();
+
+        private StepMeters(MeterRegistry registry, String partition) {
+            readTimer = chunkTimer(registry, "read", partition);
+            processTimer = chunkTimer(registry, "process", partition);
+            writeTimer = chunkTimer(registry, "write", partition);
+            read = itemCounter(registry, "read", partition);
+            written = itemCounter(registry, "written", partition);
+            skipped = itemCounter(registry, "skipped", partition);
+            for (Grade grade : GRADES) {
+                writtenByGrade[grade.ordinal()] = Counter.builder("inactive.items.converted")
+                        .description("Users handed to the writer per grade")
+                        .tag("partition", partition)
+                        .tag("grade", grade.name())
+                        .register(registry);
+            }
+        }
+
+        private static Timer chunkTimer(MeterRegistry registry, String phase, String partition) {
+            return Timer.builder("inactive.chunk." + phase)
+                    .description("Time spent in " + phase + " per chunk")
+                    .tag("partition", partition)
+                    .register(registry);
+        }
+
+        private static Counter itemCounter(MeterRegistry registry, String type, String partition) {
+            return Counter.builder("inactive.items." + type)
+                    .tag("partition", partition)
+                    .register(registry);
+        }
     }
 }
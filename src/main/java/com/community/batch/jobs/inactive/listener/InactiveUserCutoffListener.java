@@ -0,0 +1,104 @@
+package com.community.batch.jobs.inactive.listener;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 휴면 전환 기준 시각(cutoff) 계산 Listener
+ * updatedBefore(이번 실행 기준 시각 - 1년)보다 이전에 수정된 회원이 휴면 전환 대상이다.
+ * 이전 실행이 COMPLETED로 끝났다면 그 실행의 updatedBefore 이전 회원은 이미 모두 전환되었으므로,
+ * 증분 모드(inactive-user-job.incremental=true)에서는 updatedFrom ~ updatedBefore 사이에 수정된 회원만 조회한다.
+ *
+ * 계산한 값은 Job의 ExecutionContext에 저장되어 다음 실행의 updatedFrom(high-water mark)이 된다.
+ * Job 파라미터 fullScan=true로 실행하면 이전 기록과 관계없이 전체를 조회한다.
+ *
+ * 안내 발송 Step이 이번 실행에서 전환된 회원만 읽도록 처음 실행한 시각을 convertedFrom으로 저장한다.
+ * 재시작하면 이전 실행의 ExecutionContext를 이어받으므로 처음 값이 유지된다.
+ */
+@Slf4j
+@Component
+public class InactiveUserCutoffListener implements JobExecutionListener {
+
+    public static final String UPDATED_FROM = "updatedFrom";
+    public static final String UPDATED_BEFORE = "updatedBefore";
+    public static final String FULL_SCAN = "fullScan";
+    public static final String CONVERTED_FROM = "convertedFrom";
+    // 전체 조회 시 updatedFrom, 조회 조건을 항상 같은 모양으로 유지하기 위해 null 대신 사용한다.
+    public static final Date FULL_SCAN_FROM = new Date(0L);
+
+    private static final int INSTANCE_PAGE_SIZE = 20;
+
+    private final JobExplorer jobExplorer;
+    private final InactiveUserJobProperties inactiveUserJobProperties;
+
+    public InactiveUserCutoffListener(JobExplorer jobExplorer, InactiveUserJobProperties inactiveUserJobProperties) {
+        this.jobExplorer = jobExplorer;
+        this.inactiveUserJobProperties = inactiveUserJobProperties;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        JobParameters jobParameters = jobExecution.getJobParameters();
+        Date nowDate = jobParameters.getDate("nowDate", new Date());
+        LocalDateTime now = LocalDateTime.ofInstant(nowDate.toInstant(), ZoneId.systemDefault());
+        Date updatedBefore = Date.from(now.minusYears(1).atZone(ZoneId.systemDefault()).toInstant());
+
+        Date updatedFrom = FULL_SCAN_FROM;
+        if (inactiveUserJobProperties.isIncremental() && !"true".equalsIgnoreCase(jobParameters.getString(FULL_SCAN))) {
+            Date lastCutoff = findLastCutoff(jobExecution);
+            if (lastCutoff != null && lastCutoff.before(updatedBefore)) {
+                updatedFrom = lastCutoff;
+            }
+        }
+        log.info("Inactive user cutoff: {} <= updatedDate < {}", updatedFrom, updatedBefore);
+
+        jobExecution.getExecutionContext().put(UPDATED_FROM, updatedFrom);
+        jobExecution.getExecutionContext().put(UPDATED_BEFORE, updatedBefore);
+        if (!jobExecution.getExecutionContext().containsKey(CONVERTED_FROM)) {
+            jobExecution.getExecutionContext().put(CONVERTED_FROM, new Date());
+        }
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+    }
+
+    /**
+     * 가장 최근에 COMPLETED로 끝난 실행의 updatedBefore
+     * 실패한 실행의 cutoff는 전체가 전환되었다는 보장이 없으므로 건너뛴다.
+     */
+    private Date findLastCutoff(JobExecution current) {
+        String jobName = current.getJobInstance().getJobName();
+        for (int start = 0; ; start += INSTANCE_PAGE_SIZE) {
+            List<JobInstance> jobInstances = jobExplorer.getJobInstances(jobName, start, INSTANCE_PAGE_SIZE);
+            for (JobInstance jobInstance : jobInstances) {
+                Date cutoff = jobExplorer.getJobExecutions(jobInstance).stream()
+                        .filter(execution -> !execution.getId().equals(current.getId()))
+                        .filter(execution -> execution.getStatus() == BatchStatus.COMPLETED)
+                        .filter(execution -> execution.getExecutionContext().containsKey(UPDATED_BEFORE))
+                        .max(Comparator.comparing(JobExecution::getId))
+                        .map(execution -> (Date) execution.getExecutionContext().get(UPDATED_BEFORE))
+                        .orElse(null);
+                if (cutoff != null) {
+                    return cutoff;
+                }
+            }
+            if (jobInstances.size() < INSTANCE_PAGE_SIZE) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.community.batch.jobs.inactive.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 휴면 전환 쓰기의 락 경합 계측 Listener
+ * 데드락이나 락 대기 시간 초과로 청크 쓰기가 실패할 때마다 inactive.write.contention을 예외 종류 태그와 함께 기록한다.
+ * throttleLimit을 올렸을 때 처리량 대신 락 대기가 늘어나는지 이 Counter로 확인한다.
+ */
+@Slf4j
+@Component
+public class InactiveWriteContentionListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public InactiveWriteContentionListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        log.warn("Write contention (attempt {}): {}", context.getRetryCount(), throwable.getMessage());
+        meterRegistry.counter("inactive.write.contention", "exception", throwable.getClass().getSimpleName()).increment();
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+    }
+}
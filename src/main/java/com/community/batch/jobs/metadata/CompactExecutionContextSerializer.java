@@ -0,0 +1,253 @@
+package com.community.batch.jobs.metadata;
+
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * ExecutionContext를 JSON 대신 바이너리로 직렬화하는 Serializer
+ * Jackson 직렬화는 값마다 클래스 이름(["java.lang.Long",1])을 함께 쓰지만, 이 Serializer는 자주 쓰는 타입을 1바이트 태그로 쓴다.
+ * 그 외 타입은 Java 직렬화로 저장하고, 읽을 때는 신뢰할 수 있는 패키지(TRUSTED_PACKAGES)의 클래스만 허용한다.
+ * 메타데이터 테이블에 쓸 수 있는 사람이 임의의 클래스를 역직렬화하게 만들 수 없도록, Jackson Serializer의 신뢰 클래스 목록과 같은 역할을 한다.
+ * 컨텍스트 대부분은 Spring Batch가 넣는 키와 클래스 이름(batch.taskletType 등)이므로,
+ * 이 문자열들을 미리 넣어 둔 사전(preset dictionary)으로 압축해서 같은 문자열을 몇 바이트의 참조로 줄인다.
+ *
+ * JdbcExecutionContextDao가 직렬화 결과를 문자열 컬럼에 저장하므로 바이너리를 Base64로 인코딩해서 출력한다.
+ * 결과가 짧아지면 SHORT_CONTEXT(2500자)에만 저장되고 SERIALIZED_CONTEXT(CLOB)는 쓰지 않는다.
+ * 이전에 JSON으로 저장된 컨텍스트도 읽을 수 있도록 '{'로 시작하면 Jackson Serializer로 읽는다.
+ */
+public class CompactExecutionContextSerializer implements ExecutionContextSerializer {
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DATE = 6;
+    private static final byte OBJECT = 7;
+
+    // Deflater 사전은 뒤쪽 문자열일수록 짧은 거리로 참조되므로 자주 나오는 문자열을 뒤에 둔다.
+    private static final byte[] DICTIONARY = String.join("",
+            "org.springframework.batch.core.partition.support.PartitionStep",
+            "SimpleStepExecutionSplitter.GRID_SIZE",
+            "plan.minIdplan.maxIdplan.total",
+            "InactiveUserTaskInactiveUserUnitpartitionTag",
+            "minIdmaxIdupdatedFromupdatedBefore",
+            ".read.count.last.idinactiveUserReaderinactiveUserIdReader",
+            "batch.stepTypeorg.springframework.batch.core.step.tasklet.TaskletStep",
+            "batch.taskletTypeorg.springframework.batch.core.step.item.ChunkOrientedTasklet"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    // 하위 패키지는 포함하지 않는다. (com.community.batch만 하위 패키지 포함)
+    private static final List<String> TRUSTED_PACKAGES = Arrays.asList("java.lang", "java.util", "java.time");
+    private static final String APPLICATION_PACKAGE = "com.community.batch.";
+
+    private final Jackson2ExecutionContextStringSerializer jsonSerializer = new Jackson2ExecutionContextStringSerializer();
+
+    @Override
+    public void serialize(Map<String, Object> context, OutputStream out) throws IOException {
+        Assert.notNull(context, "A context is required");
+        Assert.notNull(out, "An OutputStream is required");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        bytes.write(VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setDictionary(DICTIONARY);
+        try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            data.writeInt(context.size());
+            for (Map.Entry<String, Object> entry : context.entrySet()) {
+                data.writeUTF(entry.getKey());
+                writeValue(data, entry.getValue());
+            }
+        } finally {
+            deflater.end();
+        }
+        out.write(Base64.getEncoder().encode(bytes.toByteArray()));
+    }
+
+    @Override
+    public Map<String, Object> deserialize(InputStream in) throws IOException {
+        byte[] encoded = StreamUtils.copyToByteArray(in);
+        if (encoded.length > 0 && encoded[0] == '{') {
+            return jsonSerializer.deserialize(new ByteArrayInputStream(encoded));
+        }
+
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        if (bytes.length == 0 || bytes[0] != VERSION) {
+            throw new IOException("Unsupported execution context version: " + (bytes.length == 0 ? "empty" : bytes[0]));
+        }
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(inflate(bytes)));
+        int size = data.readInt();
+        Map<String, Object> context = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String key = data.readUTF();
+            context.put(key, readValue(data));
+        }
+        return context;
+    }
+
+    /**
+     * InflaterInputStream은 사전이 필요하면 끝난 것으로 처리하므로 Inflater를 직접 사용한다.
+     */
+    private byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(bytes, 1, bytes.length - 1);
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream(bytes.length * 4);
+        byte[] buffer = new byte[512];
+        try {
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new IOException("Truncated execution context");
+                    }
+                }
+                inflated.write(buffer, 0, count);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Cannot inflate execution context", e);
+        } finally {
+            inflater.end();
+        }
+        return inflated.toByteArray();
+    }
+
+    private void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value == null) {
+            data.writeByte(NULL);
+        } else if (value instanceof String) {
+            // writeUTF는 64KB까지만 쓸 수 있으므로 길이와 바이트를 직접 쓴다.
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            data.writeByte(STRING);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        } else if (value instanceof Long) {
+            data.writeByte(LONG);
+            data.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            data.writeByte(INTEGER);
+            data.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            data.writeByte(DOUBLE);
+            data.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            data.writeByte(BOOLEAN);
+            data.writeBoolean((Boolean) value);
+        } else if (value.getClass() == Date.class) {
+            data.writeByte(DATE);
+            data.writeLong(((Date) value).getTime());
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            data.writeByte(OBJECT);
+            data.writeInt(bytes.size());
+            bytes.writeTo(data);
+        }
+    }
+
+    private Object readValue(DataInputStream data) throws IOException {
+        byte type = data.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(data), StandardCharsets.UTF_8);
+            case LONG:
+                return data.readLong();
+            case INTEGER:
+                return data.readInt();
+            case DOUBLE:
+                return data.readDouble();
+            case BOOLEAN:
+                return data.readBoolean();
+            case DATE:
+                return new Date(data.readLong());
+            case OBJECT:
+                try (ObjectInputStream objectIn = new TrustedObjectInputStream(new ByteArrayInputStream(readBytes(data)))) {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot deserialize execution context value", e);
+                }
+            default:
+                throw new IOException("Unknown execution context value type: " + type);
+        }
+    }
+
+    private byte[] readBytes(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * 신뢰할 수 있는 패키지의 클래스(와 그 배열)만 읽는 ObjectInputStream
+     * 클래스를 로딩하기 전에 이름으로 확인하므로 허용되지 않은 클래스의 static 초기화나 readObject는 실행되지 않는다.
+     */
+    private static class TrustedObjectInputStream extends ObjectInputStream {
+
+        private TrustedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isTrusted(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Class is not trusted for execution context deserialization");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not trusted for execution context deserialization");
+        }
+
+        private static boolean isTrusted(String className) {
+            String name = className;
+            if (name.startsWith("[")) {
+                // 배열은 원소 타입으로 확인한다. ([J, [Ljava.lang.Long;)
+                name = name.substring(name.lastIndexOf('[') + 1);
+                if (name.length() == 1) {
+                    return true;
+                }
+                name = name.substring(1, name.length() - 1);
+            }
+            if (name.startsWith(APPLICATION_PACKAGE)) {
+                return true;
+            }
+            int lastDot = name.lastIndexOf('.');
+            return lastDot > 0 && TRUSTED_PACKAGES.contains(name.substring(0, lastDot));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.community.batch.jobs.metadata;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.explore.support.MapJobExplorerFactoryBean;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.repository.support.MapJobRepositoryFactoryBean;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.boot.autoconfigure.batch.BatchProperties;
+import org.springframework.boot.autoconfigure.batch.JpaBatchConfigurer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * JobRepository 메타데이터 기록 방식을 inactive-user-job.metadata 설정으로 고르는 BatchConfigurer
+ * Spring Boot의 JpaBatchConfigurer를 그대로 쓰되(Step 트랜잭션은 JpaTransactionManager),
+ * JobRepository와 JobExplorer를 만드는 부분만 바꾼다.
+ *
+ * repository=jdbc: 기존처럼 BATCH_ 테이블에 기록한다. serializer=binary면 ExecutionContext를 바이너리로 저장한다.
+ * repository=memory: 메모리(Map)에만 기록한다. 프로세스가 끝나면 실행 기록이 사라지므로 재시작하지 않는 Job에만 사용한다.
+ * 두 방식 모두 ThrottledJobRepository로 감싸서 청크마다의 Step 메타데이터 기록을 flush-chunks, flush-millis 주기로 줄인다.
+ */
+@Slf4j
+@SuppressWarnings("deprecation") // Map 기반 JobRepository는 Spring Batch 5에서 제거될 예정이다.
+public class InactiveBatchConfigurer extends JpaBatchConfigurer {
+
+    private final BatchProperties batchProperties;
+    private final DataSource dataSource;
+    private final InactiveUserJobProperties.Metadata metadata;
+    private final MeterRegistry meterRegistry;
+    private MapJobRepositoryFactoryBean mapJobRepositoryFactory;
+
+    public InactiveBatchConfigurer(BatchProperties batchProperties, DataSource dataSource,
+                                   TransactionManagerCustomizers transactionManagerCustomizers, EntityManagerFactory entityManagerFactory,
+                                   InactiveUserJobProperties inactiveUserJobProperties, MeterRegistry meterRegistry) {
+        super(batchProperties, dataSource, transactionManagerCustomizers, entityManagerFactory);
+        this.batchProperties = batchProperties;
+        this.dataSource = dataSource;
+        this.metadata = inactiveUserJobProperties.getMetadata();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected JobRepository createJobRepository() throws Exception {
+        JobRepository jobRepository = metadata.getRepository() == InactiveUserJobProperties.RepositoryType.MEMORY
+                ? createMapJobRepository() : createJdbcJobRepository();
+        log.info("JobRepository: {}, serializer: {}, flush every {} chunks / {} ms", metadata.getRepository(), metadata.getSerializer(),
+                metadata.getFlushChunks(), metadata.getFlushMillis());
+        return new ThrottledJobRepository(jobRepository, metadata.getFlushChunks(), metadata.getFlushMillis(), meterRegistry);
+    }
+
+    private JobRepository createJdbcJobRepository() throws Exception {
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(getTransactionManager());
+        String isolationLevel = determineIsolationLevel();
+        if (isolationLevel != null) {
+            factory.setIsolationLevelForCreate(isolationLevel);
+        }
+        String tablePrefix = batchProperties.getJdbc().getTablePrefix();
+        if (StringUtils.hasText(tablePrefix)) {
+            factory.setTablePrefix(tablePrefix);
+        }
+        ExecutionContextSerializer serializer = serializer();
+        if (serializer != null) {
+            factory.setSerializer(serializer);
+        }
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    /**
+     * Map DAO는 트랜잭션에 참여하는 프록시라서 청크 트랜잭션이 롤백되면 메모리 기록도 함께 롤백된다.
+     * JobRepository 자체의 트랜잭션에는 DB 커넥션이 필요 없으므로 ResourcelessTransactionManager를 사용한다.
+     */
+    private JobRepository createMapJobRepository() throws Exception {
+        mapJobRepositoryFactory = new MapJobRepositoryFactoryBean(new ResourcelessTransactionManager());
+        mapJobRepositoryFactory.afterPropertiesSet();
+        return mapJobRepositoryFactory.getObject();
+    }
+
+    @Override
+    protected JobExplorer createJobExplorer() throws Exception {
+        if (mapJobRepositoryFactory != null) {
+            MapJobExplorerFactoryBean factory = new MapJobExplorerFactoryBean(mapJobRepositoryFactory);
+            factory.afterPropertiesSet();
+            return factory.getObject();
+        }
+        JobExplorerFactoryBean factory = new JobExplorerFactoryBean();
+        factory.setDataSource(dataSource);
+        String tablePrefix = batchProperties.getJdbc().getTablePrefix();
+        if (StringUtils.hasText(tablePrefix)) {
+            factory.setTablePrefix(tablePrefix);
+        }
+        ExecutionContextSerializer serializer = serializer();
+        if (serializer != null) {
+            factory.setSerializer(serializer);
+        }
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    /**
+     * @return json이면 null (JobRepositoryFactoryBean 기본값인 Jackson Serializer 사용)
+     */
+    private ExecutionContextSerializer serializer() {
+        return metadata.getSerializer() == InactiveUserJobProperties.SerializerType.BINARY
+                ? new CompactExecutionContextSerializer() : null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.community.batch.jobs.metadata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 청크마다 기록되는 Step 메타데이터를 flushChunks 청크 또는 flushMillis(ms)마다 한번만 기록하는 JobRepository
+ * TaskletStep은 커밋할 때마다 ExecutionContext(BATCH_STEP_EXECUTION_CONTEXT)와 StepExecution(BATCH_STEP_EXECUTION)을 갱신한다.
+ * 실행 중(STARTED)인 Step의 두 갱신을 건너뛰다가 기록할 차례가 되면 함께 기록하고,
+ * Step이 끝날 때(COMPLETED, FAILED 등)의 갱신은 항상 기록하므로 정상 종료나 청크 실패 시에는 마지막 커밋 위치가 저장된다.
+ *
+ * 프로세스가 비정상 종료되면 마지막으로 기록된 위치부터 재시작하므로 최대 flushChunks 청크를 다시 처리한다.
+ * (휴면 전환 Writer는 status 조건이 있어 다시 처리해도 결과가 같다)
+ * StepExecution 갱신 때 확인하는 중지 요청(JobOperator.stop)도 기록할 차례에만 확인된다.
+ *
+ * 실제로 기록한 횟수와 건너뛴 횟수를 inactive.metadata.writes, inactive.metadata.skipped로 기록한다.
+ */
+public class ThrottledJobRepository implements JobRepository {
+
+    private final JobRepository delegate;
+    private final int flushChunks;
+    private final long flushMillis;
+    private final Map<Long, FlushState> flushStates = new ConcurrentHashMap<>();
+
+    private final Counter jobWrites;
+    private final Counter stepWrites;
+    private final Counter contextWrites;
+    private final Counter stepSkips;
+    private final Counter contextSkips;
+
+    /**
+     * @param flushChunks 몇 청크마다 기록할지, 1이면 매 청크 기록한다.
+     * @param flushMillis 마지막 기록 이후 이 시간(ms)이 지나면 flushChunks와 관계없이 기록한다. 0이면 사용하지 않는다.
+     */
+    public ThrottledJobRepository(JobRepository delegate, int flushChunks, long flushMillis, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.flushChunks = Math.max(1, flushChunks);
+        this.flushMillis = flushMillis;
+        this.jobWrites = meterRegistry.counter("inactive.metadata.writes", "type", "job");
+        this.stepWrites = meterRegistry.counter("inactive.metadata.writes", "type", "step");
+        this.contextWrites = meterRegistry.counter("inactive.metadata.writes", "type", "context");
+        this.stepSkips = meterRegistry.counter("inactive.metadata.skipped", "type", "step");
+        this.contextSkips = meterRegistry.counter("inactive.metadata.skipped", "type", "context");
+    }
+
+    @Override
+    public void updateExecutionContext(StepExecution stepExecution) {
+        FlushState flushState = stepExecution.getStatus() == BatchStatus.STARTED ? flushStates.get(stepExecution.getId()) : null;
+        if (flushState != null && !flushState.onChunk(flushChunks, flushMillis)) {
+            contextSkips.increment();
+            return;
+        }
+        delegate.updateExecutionContext(stepExecution);
+        contextWrites.increment();
+    }
+
+    @Override
+    public void update(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.STARTED) {
+            flushStates.remove(stepExecution.getId());
+        } else {
+            FlushState flushState = flushStates.putIfAbsent(stepExecution.getId(), new FlushState());
+            // 처음 갱신(Step 시작)은 기록하고, 이후에는 ExecutionContext를 기록한 청크에서만 기록한다.
+            if (flushState != null && !flushState.takeStepFlush()) {
+                stepSkips.increment();
+                return;
+            }
+        }
+        delegate.update(stepExecution);
+        stepWrites.increment();
+    }
+
+    @Override
+    public void updateExecutionContext(JobExecution jobExecution) {
+        delegate.updateExecutionContext(jobExecution);
+        contextWrites.increment();
+    }
+
+    @Override
+    public void update(JobExecution jobExecution) {
+        delegate.update(jobExecution);
+        jobWrites.increment();
+    }
+
+    @Override
+    public void add(StepExecution stepExecution) {
+        delegate.add(stepExecution);
+        stepWrites.increment();
+    }
+
+    @Override
+    public void addAll(Collection<StepExecution> stepExecutions) {
+        delegate.addAll(stepExecutions);
+        stepWrites.increment(stepExecutions.size());
+    }
+
+    @Override
+    public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        return delegate.isJobInstanceExists(jobName, jobParameters);
+    }
+
+    @Override
+    public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        return delegate.createJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public JobExecution createJobExecution(JobInstance jobInstance, JobParameters jobParameters, String jobConfigurationLocation) {
+        return delegate.createJobExecution(jobInstance, jobParameters, jobConfigurationLocation);
+    }
+
+    @Override
+    public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        JobExecution jobExecution = delegate.createJobExecution(jobName, jobParameters);
+        jobWrites.increment();
+        return jobExecution;
+    }
+
+    @Override
+    public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        return delegate.getLastStepExecution(jobInstance, stepName);
+    }
+
+    @Override
+    public int getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        return delegate.getStepExecutionCount(jobInstance, stepName);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+        return delegate.getLastJobExecution(jobName, jobParameters);
+    }
+
+    /**
+     * 실행 중인 Step 하나의 기록 주기 상태
+     * 멀티 스레드 Step에서는 여러 청크 스레드가 같은 StepExecution을 갱신하므로 동기화한다.
+     */
+    private static class FlushState {
+
+        private int chunks;
+        private long lastFlushMillis = System.currentTimeMillis();
+        private boolean stepFlushPending;
+
+        synchronized boolean onChunk(int flushChunks, long flushMillis) {
+            long now = System.currentTimeMillis();
+            if (++chunks < flushChunks && (flushMillis <= 0 || now - lastFlushMillis < flushMillis)) {
+                return false;
+            }
+            chunks = 0;
+            lastFlushMillis = now;
+            stepFlushPending = true;
+            return true;
+        }
+
+        synchronized boolean takeStepFlush() {
+            boolean pending = stepFlushPending;
+            stepFlushPending = false;
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.community.batch.jobs.notice;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로컬, 테스트용 발송 구현체
+ * 실제로 보내지 않고 noticeKey별로 메모리에 기록만 한다. 같은 noticeKey는 한번만 기록된다.
+ */
+@Slf4j
+public class InMemoryInactiveNoticeSender implements InactiveNoticeSender {
+
+    private final Map<String, InactiveNotice> sent = new ConcurrentHashMap<>();
+
+    @Override
+    public void send(InactiveNotice notice) {
+        if (sent.putIfAbsent(notice.getNoticeKey(), notice) == null) {
+            log.debug("Inactive notice sent: {}", notice);
+        }
+    }
+
+    public Collection<InactiveNotice> getSent() {
+        return Collections.unmodifiableCollection(sent.values());
+    }
+}
@@ -0,0 +1,24 @@
+package com.community.batch.jobs.notice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 휴면 전환 안내 한 건
+ * noticeKey는 Job 인스턴스와 회원마다 고유하므로 발송 서비스가 같은 키의 중복 요청을 무시하도록 멱등 키로 사용한다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class InactiveNotice {
+
+    private final String noticeKey;
+    private final Long userId;
+    private final String email;
+    private final String name;
+
+    public static String noticeKey(long jobInstanceId, long userId) {
+        return "inactive-" + jobInstanceId + "-" + userId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.community.batch.jobs.notice;
+
+/**
+ * 휴면 전환 안내 발송 인터페이스 (메일, 푸시 등)
+ * 여러 스레드에서 동시에 호출되며, 발송에 실패하면 예외를 던진다.
+ * 같은 noticeKey로 다시 호출될 수 있으므로(발송 후 이력 저장 전에 중단된 경우) 구현체는 noticeKey로 중복 발송을 막아야 한다.
+ */
+public interface InactiveNoticeSender {
+
+    void send(InactiveNotice notice) throws Exception;
+}
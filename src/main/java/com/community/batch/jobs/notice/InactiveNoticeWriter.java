@@ -0,0 +1,99 @@
+package com.community.batch.jobs.notice;
+
+import com.community.batch.domain.User;
+import com.community.batch.repository.InactiveNoticeHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.WriteFailedException;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 휴면 전환 안내 발송 ItemWriter
+ * 청크의 회원마다 토큰 버킷에서 토큰을 받은 뒤 noticeTaskExecutor에서 동시에 발송하고, 모두 끝날 때까지 기다린다.
+ * 발송에 성공한 안내는 청크 트랜잭션과 별도의 트랜잭션으로 바로 이력을 저장한다.
+ * 일부가 실패해서 청크가 롤백되어도 이미 보낸 안내의 이력은 남기 때문에 재시작하면 보내지 않은 회원만 다시 읽는다.
+ */
+@Slf4j
+public class InactiveNoticeWriter implements ItemWriter<User> {
+
+    private final InactiveNoticeSender inactiveNoticeSender;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final TaskExecutor noticeTaskExecutor;
+    private final InactiveNoticeHistoryRepository inactiveNoticeHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long jobInstanceId;
+    private final long sendTimeoutMillis;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public InactiveNoticeWriter(InactiveNoticeSender inactiveNoticeSender, TokenBucketRateLimiter rateLimiter, TaskExecutor noticeTaskExecutor,
+                                InactiveNoticeHistoryRepository inactiveNoticeHistoryRepository, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry, long jobInstanceId, long sendTimeoutMillis) {
+        this.inactiveNoticeSender = inactiveNoticeSender;
+        this.rateLimiter = rateLimiter;
+        this.noticeTaskExecutor = noticeTaskExecutor;
+        this.inactiveNoticeHistoryRepository = inactiveNoticeHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jobInstanceId = jobInstanceId;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.sentCounter = meterRegistry.counter("inactive.notice.sent");
+        this.failedCounter = meterRegistry.counter("inactive.notice.failed");
+    }
+
+    @Override
+    public void write(List<? extends User> users) throws Exception {
+        List<InactiveNotice> notices = new ArrayList<>(users.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(users.size());
+        for (User user : users) {
+            InactiveNotice notice = new InactiveNotice(InactiveNotice.noticeKey(jobInstanceId, user.getId()), user.getId(),
+                    user.getEmail(), user.getName());
+            rateLimiter.acquire();
+            notices.add(notice);
+            futures.add(CompletableFuture.runAsync(() -> send(notice), noticeTaskExecutor));
+        }
+
+        List<InactiveNotice> sent = new ArrayList<>(notices.size());
+        Exception failure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+                sent.add(notices.get(i));
+            } catch (ExecutionException | TimeoutException e) {
+                // 시간 초과는 나중에 발송될 수도 있으므로 이력을 남기지 않고, 재발송은 noticeKey로 발송 서비스가 걸러낸다.
+                failure = e;
+                failedCounter.increment();
+                log.warn("Failed to send inactive notice {}", notices.get(i), e);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                inactiveNoticeHistoryRepository.saveAll(sent, jobInstanceId, LocalDateTime.now()));
+        sentCounter.increment(sent.size());
+        if (failure != null) {
+            throw new WriteFailedException((notices.size() - sent.size()) + " inactive notices were not sent", failure);
+        }
+    }
+
+    private void send(InactiveNotice notice) {
+        try {
+            inactiveNoticeSender.send(notice);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
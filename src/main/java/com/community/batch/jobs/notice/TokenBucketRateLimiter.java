@@ -0,0 +1,41 @@
+package com.community.batch.jobs.notice;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 버킷 방식의 발송 속도 제한
+ * 초당 permitsPerSecond 개씩 토큰이 채워지고 최대 burst 개까지 쌓인다.
+ * 토큰이 없으면 미리 예약(토큰을 음수로)하고 그만큼 기다리므로, 여러 스레드가 호출해도 먼저 온 순서대로 일정한 간격으로 통과한다.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        Assert.isTrue(permitsPerSecond > 0, "Permits per second must be greater than zero");
+        Assert.isTrue(burst > 0, "Burst must be greater than zero");
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.community.batch.jobs.policy;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+import org.springframework.util.Assert;
+
+/**
+ * 청크 처리 시간에 맞춰 청크 크기를 조절하는 CompletionPolicy
+ * 청크 하나(읽기, 처리, 쓰기, 커밋)에 걸린 시간이 목표 트랜잭션 시간보다 짧으면 청크를 키우고, 길면 줄인다.
+ * 다음 크기 = 현재 크기 * 목표 시간 / 실제 시간 (한번에 최대 2배까지만 변경, minChunkSize ~ maxChunkSize 범위로 제한)
+ *
+ * 청크 시작과 종료 시점을 알아야 하므로 Step에 ChunkListener로도 등록해야 한다.
+ * 멀티 스레드 Step의 청크 스레드들이 같은 인스턴스를 공유하며, 청크 크기는 마지막에 측정한 스레드의 값으로 갱신된다.
+ * 다른 스레드가 그 사이에 크기를 바꿀 수 있으므로 각 청크는 beforeChunk에서 정한 자기 시작 크기로 읽고, 그 크기를 기준으로 다음 크기를 계산한다.
+ */
+@Slf4j
+public class AdaptiveCompletionPolicy extends CompletionPolicySupport implements ChunkListener {
+
+    public static final String CHUNK_SIZE_KEY = "adaptive.chunk.size";
+    private static final String START_NANOS = AdaptiveCompletionPolicy.class.getName() + ".START_NANOS";
+    private static final String START_SIZE = AdaptiveCompletionPolicy.class.getName() + ".START_SIZE";
+    private static final int MAX_GROWTH_FACTOR = 2;
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetNanos;
+    private final DistributionSummary chunkSizeSummary;
+
+    // beforeChunk에서 정한 청크 크기를 같은 스레드의 start에 넘긴다. (start에는 ChunkContext가 전달되지 않는다.)
+    private final ThreadLocal<Integer> startSize = new ThreadLocal<>();
+
+    private volatile int chunkSize;
+
+    /**
+     * @param stepName 청크 크기 메트릭(batch.chunk.size)의 step 태그
+     * @param initialChunkSize 첫 청크 크기
+     * @param minChunkSize 최소 청크 크기, maxChunkSize와 같으면 고정 크기로 동작한다.
+     * @param maxChunkSize 최대 청크 크기
+     * @param targetMillis 목표 청크(트랜잭션) 처리 시간
+     * @param meterRegistry 청크 크기 메트릭을 등록할 레지스트리
+     */
+    public AdaptiveCompletionPolicy(String stepName, int initialChunkSize, int minChunkSize, int maxChunkSize, long targetMillis,
+                                    MeterRegistry meterRegistry) {
+        Assert.isTrue(0 < minChunkSize && minChunkSize <= maxChunkSize, "0 < minChunkSize <= maxChunkSize");
+        Assert.isTrue(targetMillis > 0, "Target duration must be greater than zero");
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetNanos = targetMillis * 1_000_000L;
+        this.chunkSize = clamp(initialChunkSize);
+        this.chunkSizeSummary = DistributionSummary.builder("batch.chunk.size")
+                .description("Chunk size chosen by the adaptive completion policy")
+                .tag("step", stepName)
+                .register(meterRegistry);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        Integer size = startSize.get();
+        return new ChunkSizeContext(parent, size == null ? chunkSize : size);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return context.getStartedCount() >= ((ChunkSizeContext) context).size;
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return super.isComplete(context, result) || isComplete(context);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        int size = chunkSize;
+        startSize.set(size);
+        context.setAttribute(START_SIZE, size);
+        context.setAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        startSize.remove();
+        Object startNanos = context.getAttribute(START_NANOS);
+        // 마지막 청크는 남은 아이템 수만큼만 읽으므로 측정에서 제외한다.
+        if (startNanos == null || context.isComplete()) {
+            return;
+        }
+        long elapsed = Math.max(1L, System.nanoTime() - (Long) startNanos);
+        int current = (Integer) context.getAttribute(START_SIZE);
+        long proposed = Math.round((double) current * targetNanos / elapsed);
+        int next = clamp(Math.max(current / MAX_GROWTH_FACTOR, Math.min((long) current * MAX_GROWTH_FACTOR, proposed)));
+        if (next != current) {
+            log.debug("chunk size {} -> {} (chunk took {} ms)", current, next, elapsed / 1_000_000L);
+            chunkSize = next;
+        }
+        chunkSizeSummary.record(next);
+        context.getStepContext().getStepExecution().getExecutionContext().putInt(CHUNK_SIZE_KEY, next);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        // 실패한 청크는 커밋 시간을 알 수 없으므로 크기를 바꾸지 않는다.
+        startSize.remove();
+    }
+
+    private int clamp(long size) {
+        return (int) Math.max(minChunkSize, Math.min(maxChunkSize, size));
+    }
+
+    private static class ChunkSizeContext extends RepeatContextSupport {
+
+        private final int size;
+
+        ChunkSizeContext(RepeatContext parent, int size) {
+            super(parent);
+            this.size = size;
+        }
+    }
+}
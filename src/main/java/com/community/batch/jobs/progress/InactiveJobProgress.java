@@ -0,0 +1,44 @@
+package com.community.batch.jobs.progress;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * inactiveUserJob 진행 상황 스냅샷 (GET /inactive-user-job/progress 응답)
+ */
+@Getter
+@AllArgsConstructor
+public class InactiveJobProgress {
+
+    private final long jobExecutionId;
+    private final String status;
+    private final Date startTime;
+    private final Date endTime;
+    /**
+     * 전체 휴면 전환 대상 수, 파티션을 나누기 전(Tasklet 모드 포함)에는 null
+     */
+    private final Long total;
+    private final long read;
+    private final long written;
+    /**
+     * 최근 구간(sliding window)의 초당 읽은 건수
+     */
+    private final double itemsPerSecond;
+    /**
+     * 최근 처리 속도로 계산한 예상 완료 시각, 대상 수나 처리 속도를 모르면 null
+     */
+    private final Date estimatedCompletion;
+    private final List<Partition> partitions;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Partition {
+        private final String name;
+        private final String status;
+        private final long read;
+        private final long written;
+    }
+}
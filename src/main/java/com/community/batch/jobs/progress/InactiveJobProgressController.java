@@ -0,0 +1,26 @@
+package com.community.batch.jobs.progress;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * inactiveUserJob 진행 상황 조회 API
+ * 메모리에 있는 실행 정보로 계산하므로 실행 중에 자주 조회해도 DB에 부하를 주지 않는다.
+ */
+@RestController
+@AllArgsConstructor
+public class InactiveJobProgressController {
+
+    private final InactiveJobProgressTracker inactiveJobProgressTracker;
+
+    /**
+     * 마지막(또는 실행 중인) inactiveUserJob의 진행 상황, 실행한 적이 없으면 404
+     */
+    @GetMapping("/inactive-user-job/progress")
+    public ResponseEntity<InactiveJobProgress> progress() {
+        InactiveJobProgress progress = inactiveJobProgressTracker.snapshot();
+        return progress == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(progress);
+    }
+}
@@ -0,0 +1,170 @@
+package com.community.batch.jobs.progress;
+
+import com.community.batch.jobs.inactive.InactiveUserPartitioner;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * inactiveUserJob 진행 상황 추적 Listener
+ * Job, partitionerStep, 파티션 Step에 등록되어 실행 중인 StepExecution 객체를 메모리에 들고 있다가,
+ * 조회할 때 그 객체의 읽기/쓰기 건수를 합산한다. 요청마다 JobRepository(DB)를 조회하지 않는다.
+ *
+ * 전체 대상 수는 InactiveUserPartitioner가 partitionerStep을 시작할 때 남아 있던 대상 수(plan.remaining)다.
+ * 읽은 건수는 이번 실행의 StepExecution만 합산하므로, 재시작하면 처음 실행의 plan.total 대신 남은 대상 수와 비교한다.
+ * 처리 속도는 청크가 끝날 때 최대 1초에 한번 (시각, 누적 읽은 건수)를 기록해 두고 최근 WINDOW 동안의 변화량으로 계산한다.
+ * 청크마다 호출되므로 기록 주기 확인은 락 없이 하고, 기록할 때만 락을 잡는다.
+ * 원격 worker로 실행한 파티션은 이 JVM에 StepExecution이 없으므로 집계되지 않는다.
+ */
+@Component
+public class InactiveJobProgressTracker implements JobExecutionListener, StepExecutionListener, ChunkListener {
+
+    private static final String PARTITIONER_STEP = "partitionerStep";
+    private static final long WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long SAMPLE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private volatile Run current;
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        current = new Run(jobExecution);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        Run run = current;
+        if (run != null && run.jobExecution == jobExecution) {
+            run.sample(System.currentTimeMillis(), true);
+        }
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        Run run = current;
+        if (run == null || !run.jobExecution.getId().equals(stepExecution.getJobExecutionId())) {
+            return;
+        }
+        if (PARTITIONER_STEP.equals(stepExecution.getStepName())) {
+            run.managerStepExecution = stepExecution;
+        } else {
+            run.steps.put(stepExecution.getId(), stepExecution);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Run run = current;
+        if (run != null) {
+            run.sample(System.currentTimeMillis(), false);
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+    }
+
+    /**
+     * @return 실행한 적이 없으면 null
+     */
+    public InactiveJobProgress snapshot() {
+        Run run = current;
+        return run == null ? null : run.snapshot(System.currentTimeMillis());
+    }
+
+    private static class Run {
+
+        private final JobExecution jobExecution;
+        private final Map<Long, StepExecution> steps = new ConcurrentHashMap<>();
+        private final Deque<long[]> samples = new ArrayDeque<>(); // {시각, 누적 읽은 건수}
+        private volatile StepExecution managerStepExecution;
+        private volatile long lastSampleMillis = Long.MIN_VALUE;
+
+        private Run(JobExecution jobExecution) {
+            this.jobExecution = jobExecution;
+        }
+
+        private long read() {
+            long read = 0;
+            for (StepExecution stepExecution : steps.values()) {
+                read += stepExecution.getReadCount();
+            }
+            return read;
+        }
+
+        private void sample(long now, boolean force) {
+            if (!force && now - lastSampleMillis < SAMPLE_INTERVAL_MILLIS) {
+                return;
+            }
+            synchronized (this) {
+                // 다른 청크 스레드가 먼저 기록했으면 건너뛴다.
+                if (!force && now - lastSampleMillis < SAMPLE_INTERVAL_MILLIS) {
+                    return;
+                }
+                lastSampleMillis = now;
+                samples.addLast(new long[]{now, read()});
+                while (samples.size() > 2 && samples.peekFirst()[0] < now - WINDOW_MILLIS) {
+                    samples.removeFirst();
+                }
+            }
+        }
+
+        private synchronized double itemsPerSecond(long now, long read) {
+            long[] first = samples.peekFirst();
+            if (first == null || now <= first[0]) {
+                return 0;
+            }
+            return (read - first[1]) * 1000.0 / (now - first[0]);
+        }
+
+        private InactiveJobProgress snapshot(long now) {
+            List<InactiveJobProgress.Partition> partitions = new ArrayList<>();
+            long read = 0;
+            long written = 0;
+            for (StepExecution stepExecution : steps.values()) {
+                read += stepExecution.getReadCount();
+                written += stepExecution.getWriteCount();
+                partitions.add(new InactiveJobProgress.Partition(stepExecution.getStepName(), stepExecution.getStatus().name(),
+                        stepExecution.getReadCount(), stepExecution.getWriteCount()));
+            }
+            partitions.sort(Comparator.comparing(InactiveJobProgress.Partition::getName));
+
+            StepExecution manager = managerStepExecution;
+            Long total = manager != null && manager.getExecutionContext().containsKey(InactiveUserPartitioner.PLAN_REMAINING)
+                    ? manager.getExecutionContext().getLong(InactiveUserPartitioner.PLAN_REMAINING) : null;
+            boolean running = jobExecution.isRunning();
+            double itemsPerSecond = running ? itemsPerSecond(now, read) : 0;
+            Date estimatedCompletion = null;
+            if (!running) {
+                estimatedCompletion = jobExecution.getEndTime();
+            } else if (total != null && itemsPerSecond > 0) {
+                estimatedCompletion = new Date(now + (long) (Math.max(0, total - read) * 1000 / itemsPerSecond));
+            }
+            return new InactiveJobProgress(jobExecution.getId(), jobExecution.getStatus().name(), jobExecution.getStartTime(),
+                    jobExecution.getEndTime(), total, read, written, itemsPerSecond, estimatedCompletion, partitions);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.community.batch.jobs.readers;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 메모리에 올린 아이템을 여러 청크 스레드가 락 없이 나눠 읽는 ItemReader 구현체
+ * 아이템은 배열 하나에 담고(노드 객체 없음), 다음에 읽을 위치만 AtomicInteger로 공유한다.
+ * 스레드는 아이템마다 공유 위치를 바꾸지 않고 claimSize 개의 구간을 한번에 가져가서(getAndAdd) 자기 구간을 다 읽을 때까지 공유 상태를 건드리지 않는다.
+ * 그래서 throttleLimit을 올려도 스레드 간 경합은 claimSize 건당 한번의 CAS뿐이다.
+ *
+ * 청크가 구간보다 먼저 끝나면(CompletionPolicy로 청크 크기가 바뀌는 경우) 남은 구간은 다른 스레드가 이어서 읽어야 하므로
+ * ChunkListener로 Step에 등록하면 afterChunk에서 남은 구간을 공유 큐로 돌려놓는다.
+ * 고정 청크 크기와 claimSize가 같다면 구간과 청크가 항상 맞아떨어지므로 등록하지 않아도 된다.
+ *
+ * 남은 구간은 청크를 쓰고 커밋한 뒤에야 돌아오므로, 가져간 뒤 끝까지 읽지 않은 구간 수(inFlight)를 따로 센다.
+ * 새로 가져갈 구간이 없어도 inFlight가 0이 아니면 null(Step 종료)을 반환하지 않고 구간이 돌아오거나 다 읽힐 때까지 기다린다.
+ * ExecutionContext에 상태를 저장하지 않으므로 재시작이 필요한 Step에는 사용하지 않는다.
+ * @param <T>
+ */
+public class ChunkClaimingItemReader<T> implements ItemReader<T>, ChunkListener {
+
+    private final Object[] items;
+    private final int claimSize;
+    private static final long WAIT_NANOS = 100_000L;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // 가져갔지만 아직 끝까지 읽지 않은 구간 수 (공유 큐로 돌아온 구간 포함)
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<int[]> returned = new ConcurrentLinkedQueue<>();
+    // 스레드별로 가져간 구간 {현재 위치, 끝 위치}
+    private final ThreadLocal<int[]> claimed = ThreadLocal.withInitial(() -> new int[2]);
+
+    public ChunkClaimingItemReader(List<? extends T> items, int claimSize) {
+        Assert.notNull(items, "Items are required");
+        Assert.isTrue(claimSize > 0, "Claim size must be greater than zero");
+        this.items = items.toArray();
+        this.claimSize = claimSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T read() {
+        int[] range = claimed.get();
+        if (range[0] >= range[1] && !claim(range)) {
+            return null;
+        }
+        T item = (T) items[range[0]++];
+        if (range[0] == range[1]) {
+            inFlight.decrementAndGet(); // 구간을 끝까지 읽었다.
+        }
+        return item;
+    }
+
+    /**
+     * 돌아온 구간이나 새 구간을 가져온다.
+     * 다른 스레드가 읽고 있는 구간이 남아 있으면 그 구간이 돌아오거나 다 읽힐 때까지 기다린다.
+     */
+    private boolean claim(int[] range) {
+        while (true) {
+            int[] leftover = returned.poll();
+            if (leftover != null) {
+                range[0] = leftover[0];
+                range[1] = leftover[1];
+                return true;
+            }
+            // 끝을 넘은 뒤에도 getAndAdd가 계속 더해지지 않도록 먼저 확인한다.
+            if (next.get() < items.length) {
+                inFlight.incrementAndGet(); // getAndAdd 전에 세야 다른 스레드가 끝으로 오인하지 않는다.
+                int start = next.getAndAdd(claimSize);
+                if (start < items.length) {
+                    range[0] = start;
+                    range[1] = Math.min(items.length, start + claimSize);
+                    return true;
+                }
+                inFlight.decrementAndGet();
+            }
+            if (inFlight.get() == 0 && returned.isEmpty()) {
+                return false;
+            }
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+    }
+
+    /**
+     * 청크가 끝났는데 이 스레드의 구간이 남았다면 다른 스레드가 읽을 수 있도록 돌려놓는다.
+     * 청크 스레드는 풀에서 매번 다른 스레드가 실행할 수 있으므로 구간을 스레드에 남겨 두지 않는다.
+     * 돌려놓은 구간은 다른 스레드가 가져가 끝까지 읽을 때까지 inFlight에 남아 있다.
+     */
+    @Override
+    public void afterChunk(ChunkContext context) {
+        int[] range = claimed.get();
+        if (range[0] < range[1]) {
+            returned.offer(new int[]{range[0], range[1]});
+            range[0] = range[1];
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        afterChunk(context);
+    }
+}
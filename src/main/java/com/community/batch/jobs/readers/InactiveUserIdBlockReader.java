@@ -0,0 +1,86 @@
+package com.community.batch.jobs.readers;
+
+import com.community.batch.repository.UserJdbcRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.util.Assert;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * 휴면 전환 대상 id만 읽는 ItemReader 구현체
+ * User 엔티티를 만들지 않고 id 컬럼만 조회해서 blockSize 크기의 long 배열 하나를 아이템 하나로 반환한다.
+ * 이름, 이메일, 날짜 필드와 영속성 컨텍스트의 스냅샷이 없으므로 id 하나당 8바이트만 사용한다.
+ *
+ * 조회는 키셋 방식(id > 마지막 id ORDER BY id)이고, 마지막으로 반환한 블록의 마지막 id를 ExecutionContext에 저장한다.
+ * 멀티 스레드 Step에서는 마지막으로 반환한 블록이 커밋된 블록이 아닐 수 있으므로 setSaveState(false)로 저장하지 않는다.
+ */
+public class InactiveUserIdBlockReader extends ItemStreamSupport implements ItemStreamReader<long[]> {
+
+    private static final String LAST_ID = "last.id";
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final LocalDateTime updatedFrom;
+    private final LocalDateTime updatedBefore;
+    private final long startAfterId;
+    private final long maxId;
+    private final int blockSize;
+
+    private boolean saveState = true;
+
+    private long lastId;
+    private boolean exhausted;
+
+    public InactiveUserIdBlockReader(UserJdbcRepository userJdbcRepository, LocalDateTime updatedFrom, LocalDateTime updatedBefore,
+                                     long startAfterId, long maxId, int blockSize) {
+        Assert.isTrue(blockSize > 0, "Block size must be greater than zero");
+        this.userJdbcRepository = userJdbcRepository;
+        this.updatedFrom = updatedFrom;
+        this.updatedBefore = updatedBefore;
+        this.startAfterId = startAfterId;
+        this.maxId = maxId;
+        this.blockSize = blockSize;
+        setName(getClass().getSimpleName());
+    }
+
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String key = getExecutionContextKey(LAST_ID);
+        lastId = saveState && executionContext.containsKey(key) ? executionContext.getLong(key) : startAfterId;
+        exhausted = false;
+    }
+
+    // 멀티 스레드 Step에서 공유되므로 조회와 lastId 갱신을 함께 동기화한다.
+    @Override
+    public synchronized long[] read() {
+        if (exhausted) {
+            return null;
+        }
+        long[] ids = new long[blockSize];
+        int size = userJdbcRepository.findInactiveCandidateIds(lastId, maxId, updatedFrom, updatedBefore, ids);
+        if (size < blockSize) {
+            exhausted = true;
+            if (size == 0) {
+                return null;
+            }
+            ids = Arrays.copyOf(ids, size);
+        }
+        lastId = ids[size - 1];
+        return ids;
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (!saveState) {
+            return;
+        }
+        executionContext.putLong(getExecutionContextKey(LAST_ID), lastId);
+    }
+}
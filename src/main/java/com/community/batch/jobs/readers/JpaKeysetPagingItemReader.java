@@ -0,0 +1,151 @@
+package com.community.batch.jobs.readers;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * id 기준 키셋 페이징 ItemReader 구현체
+ * JpaPagingItemReader는 OFFSET으로 페이지를 찾기 때문에 뒤 페이지로 갈수록 조회가 느려지고,
+ * ListItemReader는 대상 전체를 한번에 메모리에 올린다.
+ * 이 Reader는 마지막으로 반환한 id 이후의 데이터만 pageSize 만큼 조회(WHERE id > :lastId ORDER BY id)하므로
+ * 대상 건수와 관계없이 한 페이지 분량의 메모리만 사용한다.
+ * 마지막으로 반환한 id를 ExecutionContext에 저장하기 때문에 재시작 시 그 다음 id부터 이어서 읽는다.
+ *
+ * queryString은 반드시 :lastId 파라미터와 id 오름차순 정렬을 포함해야 한다.
+ * @param <T>
+ */
+public class JpaKeysetPagingItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T> {
+
+    private static final String LAST_ID = "last.id";
+    public static final String LAST_ID_PARAMETER = "lastId";
+
+    private EntityManagerFactory entityManagerFactory;
+    private String queryString;
+    private Map<String, Object> parameterValues = new HashMap<>();
+    private Function<T, Long> idExtractor;
+    private int pageSize = 10;
+    private long startAfterId = 0L;
+    private boolean saveState = true;
+
+    private EntityManager entityManager;
+    private List<T> page = Collections.emptyList();
+    private int pageIndex;
+    private long lastId;
+    private boolean lastPage;
+
+    public JpaKeysetPagingItemReader() {
+        setName(getClass().getSimpleName());
+    }
+
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void setQueryString(String queryString) {
+        this.queryString = queryString;
+    }
+
+    public void setParameterValues(Map<String, Object> parameterValues) {
+        this.parameterValues = parameterValues;
+    }
+
+    public void setIdExtractor(Function<T, Long> idExtractor) {
+        this.idExtractor = idExtractor;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 처음 실행할 때 조회를 시작할 id (해당 id는 포함하지 않는다)
+     */
+    public void setStartAfterId(long startAfterId) {
+        this.startAfterId = startAfterId;
+    }
+
+    /**
+     * 멀티 스레드 Step에서는 다른 스레드가 아직 커밋하지 않은 id가 저장될 수 있으므로
+     * 재시작 정합성이 필요하면 단일 스레드로 실행하거나 false로 설정한다.
+     * @see AbstractItemCountingItemStreamItemReader#setSaveState(boolean)
+     */
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        Assert.notNull(entityManagerFactory, "EntityManagerFactory is required");
+        Assert.hasText(queryString, "Query string is required");
+        Assert.notNull(idExtractor, "Id extractor is required");
+        Assert.isTrue(pageSize > 0, "Page size must be greater than zero");
+
+        String key = getExecutionContextKey(LAST_ID);
+        lastId = executionContext.containsKey(key) ? executionContext.getLong(key) : startAfterId;
+        page = Collections.emptyList();
+        pageIndex = 0;
+        lastPage = false;
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    // 멀티 스레드 Step에서 공유되므로 페이지 교체와 lastId 갱신을 함께 동기화한다.
+    @Override
+    public synchronized T read() {
+        if (pageIndex >= page.size()) {
+            if (lastPage) {
+                return null;
+            }
+            fetchNextPage();
+            if (page.isEmpty()) {
+                return null;
+            }
+        }
+        T item = page.get(pageIndex++);
+        lastId = idExtractor.apply(item);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchNextPage() {
+        // 이전 페이지의 엔티티를 영속성 컨텍스트에서 분리해서 힙 사용량이 페이지 크기를 넘지 않도록 한다.
+        entityManager.clear();
+        Query query = entityManager.createQuery(queryString)
+                .setParameter(LAST_ID_PARAMETER, lastId)
+                .setMaxResults(pageSize)
+                .setHint("org.hibernate.readOnly", true); // 변경 감지용 스냅샷을 만들지 않는다.
+        parameterValues.forEach(query::setParameter);
+
+        page = query.getResultList();
+        pageIndex = 0;
+        lastPage = page.size() < pageSize;
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (saveState) {
+            executionContext.putLong(getExecutionContextKey(LAST_ID), lastId);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws ItemStreamException {
+        page = Collections.emptyList();
+        if (entityManager != null) {
+            entityManager.close();
+            entityManager = null;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.community.batch.jobs.readers;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 미리 읽기(read-ahead) ItemReader 구현체
+ * 청크 처리 스레드가 Processor, Writer를 실행하고 커밋하는 동안 taskExecutor의 스레드가 delegate에서 다음 청크들을 읽어 크기가 제한된 큐에 채운다.
+ * 큐가 가득 차면 읽기 스레드가 기다리므로(backpressure) Writer가 느려도 메모리 사용량은 capacity를 넘지 않는다.
+ *
+ * delegate는 읽기 스레드에서 이미 앞서 읽었기 때문에 delegate의 현재 상태를 그대로 저장하면 커밋되지 않은 위치가 저장된다.
+ * 그래서 읽기 스레드가 snapshotInterval 건마다 delegate 상태를 스냅샷으로 떠서 아이템 사이에 넣는다.
+ * 멀티 스레드 Step에서는 다른 스레드가 꺼내간 아이템이 아직 커밋되지 않았을 수 있으므로, 청크(ChunkContext)마다 처음 꺼낸 위치를 기록하고
+ * update()에서는 아직 커밋되지 않은 다른 청크의 시작 위치를 넘지 않는 마지막 스냅샷만 저장한다.
+ * update()는 청크 트랜잭션 안에서 호출되므로 호출한 청크의 아이템은 저장되는 상태와 함께 커밋되거나 롤백된다.
+ * 롤백된 청크는 재시도로 커밋될 때까지 시작 위치가 남아 있으므로, 재시작하면 최대 snapshotInterval 건과 미커밋 구간을 다시 읽는다.
+ *
+ * 큐에서 기다리는 동안에는 락을 잡지 않으므로, 한 청크 스레드가 읽기 스레드를 기다리는 동안에도 다른 청크 스레드의 커밋(update(), afterChunk())은 막히지 않는다.
+ * 아이템은 읽기 스레드가 붙인 위치와 함께 큐에 들어가므로, 꺼내는 순서와 기록하는 순서가 달라도 청크마다 올바른 위치가 기록된다.
+ *
+ * 청크 경계는 ChunkListener로 받으므로 Step의 reader로 등록하면 Spring Batch가 자동으로 리스너로도 등록한다.
+ * delegate가 @StepScope 프록시여도 읽기 스레드에서 호출할 수 있도록, open()을 호출한 Step의 실행 정보를 읽기 스레드에도 등록한다.
+ * @param <T>
+ */
+public class PrefetchingItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T>, ChunkListener {
+
+    private static final Object END = new Object();
+
+    private final ItemStreamReader<T> delegate;
+    private final TaskExecutor taskExecutor;
+    private final int capacity;
+    private final int snapshotInterval;
+
+    private final ThreadLocal<ChunkContext> currentChunk = new ThreadLocal<>();
+    // 커밋되지 않은 청크별로 처음 꺼낸 아이템 위치
+    private final Map<ChunkContext, Long> uncommittedStarts = new IdentityHashMap<>();
+    // 꺼낸 스냅샷 중 아직 저장될 수 있는 것들 (위치 오름차순)
+    private final Deque<Snapshot> snapshots = new ArrayDeque<>();
+    // consumed 뒤의 위치 중 먼저 기록된 것들, 다른 스레드보다 늦게 기록한 스레드가 있을 때만 잠깐 생긴다.
+    private final Set<Long> consumedAhead = new HashSet<>();
+
+    private BlockingQueue<Object> queue;
+    private volatile boolean running;
+    private volatile Thread readerThread;
+    private CountDownLatch finished;
+    // 이 위치 앞의 아이템은 모두 꺼내서 청크에 기록했다.
+    private long consumed;
+    private volatile boolean exhausted;
+
+    /**
+     * @param delegate 실제로 데이터를 읽는 Reader, 읽기 스레드 하나에서만 호출된다.
+     * @param taskExecutor 읽기 작업을 실행할 TaskExecutor, 동시에 열리는 Reader 수 이상의 스레드가 있어야 한다.
+     * @param capacity 미리 읽어 둘 최대 아이템 수
+     * @param snapshotInterval delegate 상태 스냅샷을 남기는 간격
+     */
+    public PrefetchingItemReader(ItemStreamReader<T> delegate, TaskExecutor taskExecutor, int capacity, int snapshotInterval) {
+        Assert.notNull(delegate, "Delegate reader is required");
+        Assert.notNull(taskExecutor, "TaskExecutor is required");
+        Assert.isTrue(capacity > 0, "Capacity must be greater than zero");
+        Assert.isTrue(snapshotInterval > 0, "Snapshot interval must be greater than zero");
+        this.delegate = delegate;
+        this.taskExecutor = taskExecutor;
+        this.capacity = capacity;
+        this.snapshotInterval = snapshotInterval;
+        setName(getClass().getSimpleName());
+    }
+
+    @Override
+    public synchronized void open(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.open(executionContext);
+        // 스냅샷 사이사이에 들어가는 표식 자리까지 포함한 크기
+        queue = new ArrayBlockingQueue<>(capacity + capacity / snapshotInterval + 2);
+        uncommittedStarts.clear();
+        snapshots.clear();
+        consumedAhead.clear();
+        consumed = 0;
+        exhausted = false;
+        running = true;
+        finished = new CountDownLatch(1);
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        StepExecution stepExecution = stepContext == null ? null : stepContext.getStepExecution();
+        CountDownLatch done = finished;
+        taskExecutor.execute(() -> prefetch(stepExecution, done));
+    }
+
+    private void prefetch(StepExecution stepExecution, CountDownLatch done) {
+        readerThread = Thread.currentThread();
+        if (stepExecution != null) {
+            StepSynchronizationManager.register(stepExecution);
+        }
+        try {
+            long count = 0;
+            T item;
+            while (running && (item = delegate.read()) != null) {
+                queue.put(new Prefetched<>(item, count));
+                if (++count % snapshotInterval == 0) {
+                    queue.put(snapshot(count));
+                }
+            }
+            queue.put(snapshot(count));
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // close()에서 중단했다.
+        } catch (Exception e) {
+            queue.clear(); // 청크 스레드가 예외를 바로 받도록 남은 아이템은 버린다.
+            queue.offer(new Failure(e));
+        } finally {
+            if (stepExecution != null) {
+                StepSynchronizationManager.release();
+            }
+            readerThread = null;
+            Thread.interrupted(); // 풀 스레드에 중단 상태를 남기지 않는다.
+            done.countDown();
+        }
+    }
+
+    private Snapshot snapshot(long position) {
+        ExecutionContext executionContext = new ExecutionContext();
+        delegate.update(executionContext);
+        return new Snapshot(executionContext, position);
+    }
+
+    // 큐에서 기다리는 동안에는 락을 잡지 않고, 꺼낸 뒤 위치 기록만 동기화한다.
+    @Override
+    @SuppressWarnings("unchecked")
+    public T read() throws Exception {
+        while (!exhausted) {
+            Object next = queue.take();
+            if (next instanceof Prefetched) {
+                Prefetched<T> prefetched = (Prefetched<T>) next;
+                consume(prefetched.position);
+                return prefetched.item;
+            }
+            if (next instanceof Snapshot) {
+                addSnapshot((Snapshot) next);
+                continue;
+            }
+            exhausted = true;
+            queue.offer(END); // 함께 기다리던 청크 스레드도 끝을 받도록 다시 넣는다.
+            if (next instanceof Failure) {
+                throw ((Failure) next).exception;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void consume(long position) {
+        ChunkContext chunkContext = currentChunk.get();
+        if (chunkContext != null) {
+            Long start = uncommittedStarts.get(chunkContext);
+            if (start == null || position < start) {
+                uncommittedStarts.put(chunkContext, position);
+            }
+        }
+        if (position != consumed) {
+            consumedAhead.add(position);
+            return;
+        }
+        consumed++;
+        while (!consumedAhead.isEmpty() && consumedAhead.remove(consumed)) {
+            consumed++;
+        }
+    }
+
+    // 스냅샷도 다른 스레드보다 늦게 기록될 수 있으므로 위치 순서를 지켜 넣는다.
+    private synchronized void addSnapshot(Snapshot snapshot) {
+        if (snapshots.isEmpty() || snapshots.peekLast().position <= snapshot.position) {
+            snapshots.addLast(snapshot);
+            return;
+        }
+        Deque<Snapshot> later = new ArrayDeque<>();
+        while (!snapshots.isEmpty() && snapshots.peekLast().position > snapshot.position) {
+            later.addFirst(snapshots.pollLast());
+        }
+        snapshots.addLast(snapshot);
+        snapshots.addAll(later);
+    }
+
+    /**
+     * 호출한 청크와 이미 커밋된 청크가 꺼낸 아이템까지만 반영된 스냅샷을 저장한다.
+     * 읽기 스레드를 기다리지 않도록, 마지막 아이템 바로 뒤의 스냅샷은 이미 큐에 들어와 있을 때만 꺼낸다.
+     */
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        Object head = queue == null ? null : queue.peek();
+        // 락 밖에서 기다리던 청크 스레드가 먼저 꺼내갔으면 그 스레드가 기록한다.
+        if (head instanceof Snapshot && queue.remove(head)) {
+            addSnapshot((Snapshot) head);
+        }
+        Snapshot committed = lastSnapshotUpTo(committedPosition(currentChunk.get()));
+        if (committed == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : committed.executionContext.entrySet()) {
+            executionContext.put(entry.getKey(), entry.getValue());
+        }
+        // 모든 청크 기준으로도 저장 가능한 스냅샷보다 앞선 것은 다시 쓰이지 않는다.
+        Snapshot floor = lastSnapshotUpTo(committedPosition(null));
+        while (floor != null && snapshots.peekFirst() != floor) {
+            snapshots.pollFirst();
+        }
+    }
+
+    /**
+     * 꺼냈지만 아직 기록하지 않은 아이템은 consumed 이후 위치이므로 저장 범위에 들어가지 않는다.
+     * @param excluded 위치 계산에서 제외할 청크 (update()를 호출한 청크)
+     * @return 이 위치 앞의 아이템은 모두 커밋됐거나 excluded 청크에 속한다.
+     */
+    private long committedPosition(ChunkContext excluded) {
+        long position = consumed;
+        for (Map.Entry<ChunkContext, Long> entry : uncommittedStarts.entrySet()) {
+            if (entry.getKey() != excluded) {
+                position = Math.min(position, entry.getValue());
+            }
+        }
+        return position;
+    }
+
+    private Snapshot lastSnapshotUpTo(long position) {
+        Snapshot last = null;
+        Iterator<Snapshot> iterator = snapshots.iterator();
+        while (iterator.hasNext()) {
+            Snapshot snapshot = iterator.next();
+            if (snapshot.position > position) {
+                break;
+            }
+            last = snapshot;
+        }
+        return last;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        currentChunk.set(context);
+    }
+
+    @Override
+    public synchronized void afterChunk(ChunkContext context) {
+        uncommittedStarts.remove(context); // 커밋된 청크
+        currentChunk.remove();
+    }
+
+    /**
+     * 롤백된 청크는 재시도에서 같은 ChunkContext로 커밋되므로 시작 위치를 그대로 남겨 둔다.
+     */
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        currentChunk.remove();
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        running = false;
+        Thread thread = readerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (finished != null) {
+            try {
+                finished.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (queue != null) {
+            queue.clear();
+        }
+        delegate.close();
+    }
+
+    private static class Prefetched<T> {
+        private final T item;
+        private final long position;
+
+        private Prefetched(T item, long position) {
+            this.item = item;
+            this.position = position;
+        }
+    }
+
+    private static class Snapshot {
+        private final ExecutionContext executionContext;
+        private final long position;
+
+        private Snapshot(ExecutionContext executionContext, long position) {
+            this.executionContext = executionContext;
+            this.position = position;
+        }
+    }
+
+    private static class Failure {
+        private final Exception exception;
+
+        private Failure(Exception exception) {
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.community.batch.jobs.staging;
+
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * id(long)를 임시 파일에 순서대로 쌓아 두고 구간 단위로 다시 읽는 저장소
+ * 대상 id가 힙보다 많아도 되도록 힙에는 아무것도 남기지 않고, 읽기/쓰기 버퍼도 힙 밖(direct buffer)에 bufferSize 개 분량만 잡는다.
+ * 파일은 DELETE_ON_CLOSE로 열기 때문에 close()하면 삭제되고, close되지 못하고 JVM이 종료되어도 가능한 범위에서 삭제된다.
+ *
+ * 한 스레드에서 append를 모두 끝낸 뒤 read하는 용도이며 스레드에 안전하지 않다.
+ */
+public class IdSpillStore implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long size;
+
+    public static IdSpillStore create(Path directory, String prefix, int bufferSize) throws IOException {
+        Files.createDirectories(directory);
+        return new IdSpillStore(Files.createTempFile(directory, prefix, ".ids"), bufferSize);
+    }
+
+    private IdSpillStore(Path path, int bufferSize) throws IOException {
+        Assert.isTrue(bufferSize > 0, "Buffer size must be greater than zero");
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize * Long.BYTES);
+    }
+
+    public void append(long[] ids, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putLong(ids[i]);
+        }
+        size += length;
+    }
+
+    /**
+     * index 번째 id부터 ids 크기만큼 읽어서 채운다.
+     * @return 채운 id 개수, 끝까지 읽었으면 0
+     */
+    public int read(long index, long[] ids) throws IOException {
+        flush();
+        int length = (int) Math.max(0, Math.min(ids.length, size - index));
+        int filled = 0;
+        while (filled < length) {
+            int count = Math.min(length - filled, buffer.capacity() / Long.BYTES);
+            buffer.clear().limit(count * Long.BYTES);
+            long position = (index + filled) * Long.BYTES;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + path);
+                }
+            }
+            buffer.flip();
+            for (int i = 0; i < count; i++) {
+                ids[filled++] = buffer.getLong();
+            }
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private void flush() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, channel.size());
+        }
+        buffer.clear();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.community.batch.jobs.staging;
+
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Job 실행별 휴면 전환 대상 id 임시 저장소(IdSpillStore) 관리
+ * inactive-user-job.staging.directory 아래에 Job 실행마다 파일을 만들고,
+ * Job이 COMPLETED든 FAILED든 끝나면 afterJob에서 닫아서 파일을 삭제한다.
+ */
+@Slf4j
+@Component
+public class InactiveIdStagingArea implements JobExecutionListener {
+
+    private final Map<Long, IdSpillStore> stores = new ConcurrentHashMap<>();
+    private final InactiveUserJobProperties inactiveUserJobProperties;
+
+    public InactiveIdStagingArea(InactiveUserJobProperties inactiveUserJobProperties) {
+        this.inactiveUserJobProperties = inactiveUserJobProperties;
+    }
+
+    public IdSpillStore create(Long jobExecutionId) throws IOException {
+        release(jobExecutionId);
+        InactiveUserJobProperties.Staging staging = inactiveUserJobProperties.getStaging();
+        IdSpillStore store = IdSpillStore.create(Paths.get(staging.getDirectory()), "inactive-user-" + jobExecutionId + "-",
+                staging.getBufferSize());
+        stores.put(jobExecutionId, store);
+        return store;
+    }
+
+    /**
+     * @return 없으면 null
+     */
+    public IdSpillStore get(Long jobExecutionId) {
+        return stores.get(jobExecutionId);
+    }
+
+    public void release(Long jobExecutionId) {
+        IdSpillStore store = stores.remove(jobExecutionId);
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            log.warn("Failed to delete staging file {}", store.getPath(), e);
+        }
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        release(jobExecution.getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.community.batch.jobs.writers;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writer가 알게 된 실제 처리 건수를 청크 트랜잭션이 커밋된 뒤에 StepExecution에 반영한다.
+ *
+ * ItemWriter에서는 청크의 StepContribution에 접근할 수 없으므로 커밋 콜백으로 StepExecution의 건수를 고친다.
+ * 롤백된 청크는 afterCommit이 호출되지 않으므로 집계에 남지 않는다.
+ * TaskletStep은 afterCompletion에서 청크 잠금을 풀기 때문에 afterCommit은 다른 청크 스레드의 apply와 겹치지 않는다.
+ * 고친 건수는 다음 청크 커밋이나 Step 종료 때 JobRepository에 저장된다.
+ */
+final class CommittedCountAdjustment {
+
+    private CommittedCountAdjustment() {
+    }
+
+    /**
+     * @param readDelta readCount에 더할 값
+     * @param writeDelta writeCount에 더할 값
+     * @param filterDelta filterCount에 더할 값
+     */
+    static void afterCommit(int readDelta, int writeDelta, int filterDelta) {
+        if (readDelta == 0 && writeDelta == 0 && filterDelta == 0) {
+            return;
+        }
+        StepExecution stepExecution = StepSynchronizationManager.getContext().getStepExecution();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stepExecution.setReadCount(stepExecution.getReadCount() + readDelta);
+                stepExecution.setWriteCount(stepExecution.getWriteCount() + writeDelta);
+                stepExecution.setFilterCount(stepExecution.getFilterCount() + filterDelta);
+            }
+        });
+    }
+}
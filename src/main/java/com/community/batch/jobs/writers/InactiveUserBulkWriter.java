@@ -0,0 +1,47 @@
+package com.community.batch.jobs.writers;
+
+import com.community.batch.domain.User;
+import com.community.batch.repository.UserJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 휴면회원 전환용 ItemWriter 구현체
+ * JpaItemWriter는 User 엔티티를 한 건씩 merge 하고, 변경 감지로 전체 컬럼 UPDATE를 건별로 실행한다.
+ * 이 Writer는 청크의 id만 모아서 청크당 한번의 UPDATE ... WHERE id IN (...) AND status = 'ACTIVE'로 처리한다.
+ *
+ * 청크가 커밋되면 writeCount를 실제 변경 건수로 맞추고 이미 INACTIVE였던 건은 filterCount로 옮긴다.
+ */
+@Slf4j
+public class InactiveUserBulkWriter implements ItemWriter<User> {
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    private final LocalDateTime updatedBefore;
+
+    /**
+     * @param updatedBefore 파티션의 휴면 전환 기준 시각, 읽은 뒤에 수정된 회원은 전환하지 않는다.
+     */
+    public InactiveUserBulkWriter(UserJdbcRepository userJdbcRepository, LocalDateTime updatedBefore) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.updatedBefore = updatedBefore;
+    }
+
+    @Override
+    public void write(List<? extends User> users) {
+        int size = users.size();
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = users.get(i).getId();
+        }
+        int updated = userJdbcRepository.updateInactive(ids, size, updatedBefore, LocalDateTime.now());
+        int alreadyInactive = size - updated;
+        if (alreadyInactive > 0) {
+            log.info("{} users were already inactive", alreadyInactive);
+        }
+        CommittedCountAdjustment.afterCommit(0, -alreadyInactive, alreadyInactive);
+    }
+}
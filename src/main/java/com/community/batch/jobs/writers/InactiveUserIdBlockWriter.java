@@ -0,0 +1,46 @@
+package com.community.batch.jobs.writers;
+
+import com.community.batch.repository.UserJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * InactiveUserIdBlockReader가 읽은 id 블록을 그대로 UPDATE ... WHERE id IN (...)으로 휴면 전환하는 ItemWriter
+ *
+ * 아이템이 id 하나가 아니라 id 블록이므로 StepExecution의 readCount, writeCount는 블록 수로 집계된다.
+ * 청크가 커밋되면 실제 id 개수와 변경 건수로 바꿔서 엔티티 방식 Step과 같은 기준으로 보고한다.
+ */
+@Slf4j
+public class InactiveUserIdBlockWriter implements ItemWriter<long[]> {
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    private final LocalDateTime updatedBefore;
+
+    /**
+     * @param updatedBefore 파티션의 휴면 전환 기준 시각, 읽은 뒤에 수정된 회원은 전환하지 않는다.
+     */
+    public InactiveUserIdBlockWriter(UserJdbcRepository userJdbcRepository, LocalDateTime updatedBefore) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.updatedBefore = updatedBefore;
+    }
+
+    @Override
+    public void write(List<? extends long[]> blocks) {
+        LocalDateTime now = LocalDateTime.now();
+        int received = 0;
+        int updated = 0;
+        for (long[] ids : blocks) {
+            updated += userJdbcRepository.updateInactive(ids, ids.length, updatedBefore, now);
+            received += ids.length;
+        }
+        if (received > updated) {
+            log.info("{} users were already inactive", received - updated);
+        }
+        // 블록 단위로 집계된 readCount, writeCount를 id 단위로 바꾼다.
+        CommittedCountAdjustment.afterCommit(received - blocks.size(), updated - blocks.size(), received - updated);
+    }
+}
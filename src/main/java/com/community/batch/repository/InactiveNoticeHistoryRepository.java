@@ -0,0 +1,32 @@
+package com.community.batch.repository;
+
+import com.community.batch.jobs.notice.InactiveNotice;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 휴면 전환 안내 발송 이력(inactive_notice_history)을 JDBC 배치 insert로 저장하는 Repository
+ */
+@Repository
+@AllArgsConstructor
+public class InactiveNoticeHistoryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<InactiveNotice> notices, long jobInstanceId, LocalDateTime sentDate) {
+        if (notices.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(sentDate);
+        jdbcTemplate.batchUpdate("insert into inactive_notice_history(notice_key, user_id, job_instance_id, sent_date) values (?, ?, ?, ?)",
+                notices.stream()
+                        .map(notice -> new Object[]{notice.getNoticeKey(), notice.getUserId(), jobInstanceId, timestamp})
+                        .collect(Collectors.toList()));
+    }
+}
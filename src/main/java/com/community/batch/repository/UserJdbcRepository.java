@@ -0,0 +1,120 @@
+package com.community.batch.repository;
+
+import com.community.batch.cache.UserCacheEvictor;
+import com.community.batch.domain.enums.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * 엔티티를 거치지 않고 user 테이블을 집합 단위로 다루는 JDBC Repository
+ * JPA 변경 감지(dirty checking)나 영속성 컨텍스트 없이 한번의 쿼리로 여러 행을 처리한다.
+ */
+@Repository
+@AllArgsConstructor
+public class UserJdbcRepository {
+
+    // IN 절 바인딩 파라미터 개수 제한을 넘지 않도록 한번에 처리할 최대 id 개수
+    private static final int MAX_IN_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCacheEvictor userCacheEvictor;
+
+    /**
+     * 휴면 전환 대상(updatedFrom 이후, updatedBefore 이전에 수정된 ACTIVE 회원)의 id 최소값, 최대값과 대상 수를 조회한다.
+     * 같은 인덱스 범위를 읽으므로 대상 수는 진행률 계산용으로 함께 구한다.
+     * @return 대상이 없으면 null
+     */
+    public IdRange findInactiveCandidateIdRange(LocalDateTime updatedFrom, LocalDateTime updatedBefore) {
+        return jdbcTemplate.queryForObject(
+                "select min(id), max(id), count(*) from user where status = ? and updated_date >= ? and updated_date < ?",
+                (rs, rowNum) -> {
+                    long minId = rs.getLong(1);
+                    return rs.wasNull() ? null : new IdRange(minId, rs.getLong(2), rs.getLong(3));
+                },
+                UserStatus.ACTIVE.name(), Timestamp.valueOf(updatedFrom), Timestamp.valueOf(updatedBefore));
+    }
+
+    /**
+     * afterId 다음부터 maxId까지의 휴면 전환 대상(updatedFrom ~ updatedBefore) id를 오름차순으로 buffer 크기만큼 조회해서 buffer에 채운다.
+     * 엔티티 대신 id 컬럼만 읽어서 long 배열에 담으므로 행마다 객체를 만들지 않는다.
+     * @return buffer에 채운 id 개수
+     */
+    public int findInactiveCandidateIds(long afterId, long maxId, LocalDateTime updatedFrom, LocalDateTime updatedBefore, long[] buffer) {
+        int[] count = new int[1];
+        jdbcTemplate.query(
+                "select id from user where id > ? and id <= ? and status = ? and updated_date >= ? and updated_date < ? order by id limit ?",
+                (PreparedStatement ps) -> {
+                    ps.setLong(1, afterId);
+                    ps.setLong(2, maxId);
+                    ps.setString(3, UserStatus.ACTIVE.name());
+                    ps.setTimestamp(4, Timestamp.valueOf(updatedFrom));
+                    ps.setTimestamp(5, Timestamp.valueOf(updatedBefore));
+                    ps.setInt(6, buffer.length);
+                    ps.setFetchSize(buffer.length);
+                },
+                (ResultSet rs) -> {
+                    buffer[count[0]++] = rs.getLong(1);
+                });
+        return count[0];
+    }
+
+    /**
+     * 전달된 id 중 아직 ACTIVE 상태이고 updatedBefore 이전에 수정된 회원만 INACTIVE로 변경한다.
+     * status = 'ACTIVE' 조건이 있기 때문에 같은 id로 여러번 실행해도 결과가 같다.
+     * id를 조회한 뒤 전환하기 전에 로그인 등으로 수정된 회원은 updated_date 조건으로 건너뛴다.
+     * 여러 스레드가 동시에 실행해도 행 락을 항상 같은 순서(id 오름차순)로 잡도록 ids의 앞 length 개를 제자리에서 정렬한다.
+     * 서로 반대 순서로 락을 잡는 트랜잭션이 없으므로 데드락 대신 락 대기만 생긴다.
+     * @return 실제로 변경된 행 수
+     */
+    public int updateInactive(long[] ids, int length, LocalDateTime updatedBefore, LocalDateTime updatedDate) {
+        Arrays.sort(ids, 0, length);
+        int updated = 0;
+        for (int from = 0; from < length; from += MAX_IN_SIZE) {
+            updated += updateInactiveSlice(ids, from, Math.min(length, from + MAX_IN_SIZE), updatedBefore, updatedDate);
+        }
+        userCacheEvictor.evictByIds(ids, length);
+        return updated;
+    }
+
+    /**
+     * 정렬된 id의 처음, 마지막 값으로 id 구간 조건을 함께 건다.
+     * H2는 IN 목록을 인덱스의 첫 번째 컬럼에만 사용하므로 (status, id, ...) 인덱스를 고르면 status = ? 로 ACTIVE 회원 전체를 읽는다.
+     * 구간 조건이 있으면 어떤 인덱스를 골라도 이 조각의 id 구간만 읽는다.
+     */
+    private int updateInactiveSlice(long[] ids, int from, int to, LocalDateTime updatedBefore, LocalDateTime updatedDate) {
+        StringBuilder sql = new StringBuilder("update user set status = ?, updated_date = ? where status = ? and updated_date < ? and id >= ? and id <= ? and id in (");
+        for (int i = from; i < to; i++) {
+            sql.append(i == from ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        return jdbcTemplate.update(sql.toString(), (PreparedStatement ps) -> {
+            int index = 1;
+            ps.setString(index++, UserStatus.INACTIVE.name());
+            ps.setTimestamp(index++, Timestamp.valueOf(updatedDate));
+            ps.setString(index++, UserStatus.ACTIVE.name());
+            ps.setTimestamp(index++, Timestamp.valueOf(updatedBefore));
+            ps.setLong(index++, ids[from]);
+            ps.setLong(index++, ids[to - 1]);
+            for (int i = from; i < to; i++) {
+                ps.setLong(index++, ids[i]);
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IdRange {
+        private final long minId;
+        private final long maxId;
+        private final long count;
+    }
+}
@@ -1,14 +1,23 @@
 package com.community.batch.repository;
 
+import com.community.batch.cache.UserCacheEvictor;
 import com.community.batch.domain.User;
 import com.community.batch.domain.enums.Grade;
 import com.community.batch.domain.enums.UserStatus;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * spring.cache.type=caffeine이면 email 기준으로 캐시한다. (UserCache가 email -> id, id -> User로 나눠 저장)
+     * 회원 상태가 바뀌면 UserCacheEvictor가 id로 캐시에서 지운다. 없는 email(null)은 캐시하지 않는다.
+     * 목록 조회는 호출마다 기준 시각이 달라 같은 키로 다시 조회되지 않으므로 캐시하지 않는다.
+     */
+    @Cacheable(cacheNames = UserCacheEvictor.USERS_BY_EMAIL, key = "#p0", sync = true, cacheResolver = "userCacheEvictor")
     User findByEmail(String email);
 
     List<User> findByUpdatedDateBeforeAndStatusEquals(LocalDateTime minusYears, UserStatus active);
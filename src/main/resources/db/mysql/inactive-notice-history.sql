@@ -0,0 +1,10 @@
+-- 휴면 전환 안내 발송 이력 (InactiveNoticeHistory) 테이블
+-- prod 프로필은 ddl-auto=validate라서 Hibernate가 테이블을 만들지 않으므로 여기서 만든다. 이미 있으면 아무것도 바꾸지 않는다.
+create table if not exists inactive_notice_history (
+    notice_key varchar(255) not null,
+    user_id bigint,
+    job_instance_id bigint,
+    sent_date datetime(6),
+    primary key (notice_key),
+    index idx_inactive_notice_history_user_job (user_id, job_instance_id)
+) engine = InnoDB;
@@ -0,0 +1,29 @@
+-- User 엔티티의 휴면회원 배치 조회용 인덱스 (@Table(indexes = ...)와 같은 이름, 같은 컬럼 순서)
+-- ddl-auto=validate는 인덱스를 만들지도 확인하지도 않으므로 여기서 만든다.
+-- MySQL은 create index if not exists를 지원하지 않아서 information_schema에 없을 때만 create index를 실행한다.
+set @ddl = (select if(count(*) = 0,
+        'create index idx_user_status_id_updated_date on user (status, id, updated_date)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'user' and index_name = 'idx_user_status_id_updated_date');
+prepare create_index from @ddl;
+execute create_index;
+deallocate prepare create_index;
+
+set @ddl = (select if(count(*) = 0,
+        'create index idx_user_status_grade_updated_date on user (status, grade, updated_date, id)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'user' and index_name = 'idx_user_status_grade_updated_date');
+prepare create_index from @ddl;
+execute create_index;
+deallocate prepare create_index;
+
+set @ddl = (select if(count(*) = 0,
+        'create index idx_user_status_updated_date on user (status, updated_date, id)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'user' and index_name = 'idx_user_status_updated_date');
+prepare create_index from @ddl;
+execute create_index;
+deallocate prepare create_index;
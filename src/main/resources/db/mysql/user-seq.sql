@@ -0,0 +1,9 @@
+-- User id를 IDENTITY(auto_increment)에서 user_seq 시퀀스(allocationSize 100)로 바꾸기 위한 MySQL 마이그레이션
+-- 시퀀스가 없는 MySQL에서 Hibernate는 user_seq 테이블의 next_val 값을 시퀀스처럼 사용한다.
+-- pooled optimizer는 읽은 값 - 99부터 id를 할당하므로 max(id) + 100으로 시작해야 기존 id와 겹치지 않는다.
+-- prod 프로필에서 애플리케이션이 시작될 때마다 실행되며, 이미 값이 있으면 아무것도 바꾸지 않는다.
+create table if not exists user_seq (next_val bigint) engine = InnoDB;
+
+insert into user_seq (next_val)
+select coalesce(max(id), 0) + 100 from user
+where not exists (select 1 from user_seq);
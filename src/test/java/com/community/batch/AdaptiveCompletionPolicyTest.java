@@ -0,0 +1,60 @@
+package com.community.batch;
+
+import com.community.batch.jobs.policy.AdaptiveCompletionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveCompletionPolicyTest {
+
+    // 목표 시간이 충분히 길어서 청크마다 최대 배율(2배)로 커진다.
+    private static final long TARGET_MILLIS = 3_600_000L;
+
+    @Test
+    public void 청크_시작_크기_기준_조절_테스트() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveCompletionPolicy policy = new AdaptiveCompletionPolicy("testStep", 10, 1, 1000, TARGET_MILLIS, meterRegistry);
+        ChunkContext first = chunkContext();
+        policy.beforeChunk(first);
+        RepeatContext firstRepeat = policy.start(new RepeatContextSupport(null));
+
+        // 첫 청크가 끝나기 전에 다른 스레드의 청크가 시작하고 끝나서 크기를 20으로 바꾼다.
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                ChunkContext second = chunkContext();
+                policy.beforeChunk(second);
+                policy.start(new RepeatContextSupport(null));
+                policy.afterChunk(second);
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(policy.getChunkSize()).isEqualTo(20);
+
+        // 첫 청크는 시작할 때 정한 10건을 읽고, 10을 기준으로 다음 크기를 정한다.
+        for (int i = 0; i < 9; i++) {
+            policy.update(firstRepeat);
+        }
+        assertThat(policy.isComplete(firstRepeat)).isFalse();
+        policy.update(firstRepeat);
+        assertThat(policy.isComplete(firstRepeat)).isTrue();
+        policy.afterChunk(first);
+
+        assertThat(policy.getChunkSize()).isEqualTo(20);
+        assertThat(meterRegistry.summary("batch.chunk.size", "step", "testStep").count()).isEqualTo(2);
+    }
+
+    private static ChunkContext chunkContext() {
+        return new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution()));
+    }
+}
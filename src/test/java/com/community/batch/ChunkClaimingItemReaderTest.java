@@ -0,0 +1,100 @@
+package com.community.batch;
+
+import com.community.batch.jobs.readers.ChunkClaimingItemReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ChunkClaimingItemReaderTest {
+
+    @Test
+    public void 멀티_스레드_구간_나눠_읽기_테스트() throws Exception {
+        List<Integer> items = IntStream.range(0, 100_003).boxed().collect(Collectors.toList());
+        ChunkClaimingItemReader<Integer> reader = new ChunkClaimingItemReader<>(items, 64);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executorService.submit((Callable<List<Integer>>) () -> {
+                List<Integer> read = new ArrayList<>();
+                Integer item;
+                while ((item = reader.read()) != null) {
+                    read.add(item);
+                }
+                return read;
+            }));
+        }
+        List<Integer> read = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            read.addAll(future.get());
+        }
+        executorService.shutdown();
+
+        // 모든 아이템을 빠짐없이 한번씩만 읽는다.
+        assertThat(read).hasSize(items.size());
+        assertThat(read).containsExactlyInAnyOrderElementsOf(items);
+    }
+
+    @Test
+    public void 청크가_끝나면_남은_구간_반환_테스트() throws Exception {
+        ChunkClaimingItemReader<Integer> reader = new ChunkClaimingItemReader<>(IntStream.range(0, 10).boxed().collect(Collectors.toList()), 5);
+        assertThat(reader.read()).isEqualTo(0);
+        assertThat(reader.read()).isEqualTo(1);
+        assertThat(reader.read()).isEqualTo(2);
+        reader.afterChunk(null); // 구간 [0, 5) 중 3건만 읽고 청크가 끝났다.
+
+        // 다른 스레드가 남은 구간(3, 4)부터 이어서 읽는다.
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        List<Integer> read = executorService.submit(() -> {
+            List<Integer> items = new ArrayList<>();
+            Integer item;
+            while ((item = reader.read()) != null) {
+                items.add(item);
+            }
+            return items;
+        }).get();
+        executorService.shutdown();
+
+        assertThat(read).containsExactly(3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void 다른_스레드가_끝에_도달해도_반환될_구간을_기다림_테스트() throws Exception {
+        ChunkClaimingItemReader<Integer> reader = new ChunkClaimingItemReader<>(IntStream.range(0, 10).boxed().collect(Collectors.toList()), 5);
+        assertThat(reader.read()).isEqualTo(0);
+        assertThat(reader.read()).isEqualTo(1);
+        assertThat(reader.read()).isEqualTo(2); // 구간 [0, 5) 중 3건만 읽고 청크가 끝났지만 아직 커밋 중이다.
+
+        // 다른 스레드는 구간 [5, 10)을 다 읽고 새로 가져갈 구간이 없는 끝에 도달한다.
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<List<Integer>> future = executorService.submit(() -> {
+            List<Integer> items = new ArrayList<>();
+            Integer item;
+            while ((item = reader.read()) != null) {
+                items.add(item);
+            }
+            return items;
+        });
+
+        // 남은 구간이 돌아오기 전에는 null을 반환해서 Step을 끝내지 않는다.
+        assertThatThrownBy(() -> future.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        reader.afterChunk(null); // 커밋이 끝난 뒤에 남은 구간(3, 4)을 돌려놓는다.
+        List<Integer> read = future.get(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        assertThat(read).containsExactly(5, 6, 7, 8, 9, 3, 4);
+    }
+}
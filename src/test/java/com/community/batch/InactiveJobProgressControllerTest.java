@@ -0,0 +1,60 @@
+package com.community.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 진행 상황 API가 메모리의 실행 정보로 전체 대상 수와 파티션별 건수를 보여주는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveJobProgressControllerTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void 진행_상황_조회_테스트() throws Exception {
+        mockMvc.perform(get("/inactive-user-job/progress"))
+                .andExpect(status().isNotFound()); // 아직 실행한 적이 없다.
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(
+                new JobParametersBuilder().addDate("nowDate", new Date()).toJobParameters()
+        );
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        mockMvc.perform(get("/inactive-user-job/progress"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobExecutionId").value(jobExecution.getId()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.total").value(10))
+                .andExpect(jsonPath("$.read").value(10))
+                .andExpect(jsonPath("$.written").value(10))
+                .andExpect(jsonPath("$.estimatedCompletion").exists())
+                .andExpect(jsonPath("$.partitions.length()").value(2))
+                .andExpect(jsonPath("$.partitions[0].name").value("partitionerStep:InactiveUserTask0"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Processor를 AsyncItemProcessor/AsyncItemWriter로 감싼 inactiveUserAsyncStep을 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2",
+        "inactive-user-job.async-processor=true",
+        "inactive-user-job.executor.processor-threads=2"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserAsyncProcessorJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void 비동기_Processor_휴면_회원_전환_테스트() throws Exception {
+        double convertedBefore = convertedCount();
+        double processNanosBefore = processNanos();
+
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getReadCount()).isEqualTo(10);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+
+        // Writer에 넘어온 Future의 결과로 등급별 건수를 세고, 처리 시간은 Processor 스레드에서 잰다.
+        assertThat(convertedCount() - convertedBefore).isEqualTo(10);
+        assertThat(processNanos()).isGreaterThan(processNanosBefore);
+    }
+
+    private double convertedCount() {
+        return meterRegistry.find("inactive.items.converted").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double processNanos() {
+        return meterRegistry.find("inactive.chunk.process").timers().stream().mapToDouble(timer -> timer.totalTime(TimeUnit.NANOSECONDS)).sum();
+    }
+}
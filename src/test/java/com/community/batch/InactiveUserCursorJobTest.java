@@ -0,0 +1,43 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티션마다 한번의 쿼리를 커서로 읽는 inactiveUserCursorReader를 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2",
+        "inactive-user-job.reader=cursor",
+        "inactive-user-job.cursor.fetch-size=3"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserCursorJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 커서_Reader_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getReadCount()).isEqualTo(10);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.inactive.InactiveUserPartitioner;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 작은 작업 단위로 나누는 동적 파티셔닝을 검증한다.
+ * 한 단위가 실패한 실행을 JobRepository로 재시작하면 완료된 단위는 건너뛰고 실패한 단위만 다시 실행한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.dynamic-partition.enabled=true",
+        "inactive-user-job.dynamic-partition.unit-size=3",
+        "inactive-user-job.throttle-limit=1" // 실패한 단위(1007 ~ 1009)가 청크 하나로 함께 롤백되도록 한다.
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserDynamicPartitionJobTest extends InactiveUserJobTestSupport {
+
+    private static final long FAILING_ID = 1007L;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private UserJdbcRepository userJdbcRepository;
+
+    @Test
+    public void 동적_파티셔닝_실패_후_재시작_테스트() throws Exception {
+        // 1007 ~ 1009 단위의 쓰기만 실패시킨다. (재시도 대상이 아닌 예외)
+        AtomicBoolean failing = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            long[] ids = invocation.getArgument(0);
+            int length = invocation.getArgument(1);
+            for (int i = 0; i < length; i++) {
+                if (failing.get() && ids[i] == FAILING_ID) {
+                    throw new IllegalStateException("unit failure");
+                }
+            }
+            return invocation.callRealMethod();
+        }).when(userJdbcRepository).updateInactive(any(long[].class), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+        JobExecution failed = launchJob();
+
+        assertThat(failed.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(failed.getStepExecutions()).hasSize(5); // partitionerStep + 작업 단위 4개 (1001 ~ 1010, 3개씩)
+        // 분할 계획은 partition() 전에 저장되는 partitionerStep의 ExecutionContext에 남아 있어야 한다.
+        StepExecution failedManager = stepExecution(failed, "partitionerStep");
+        StepExecution savedManager = jobExplorer.getStepExecution(failed.getId(), failedManager.getId());
+        assertThat(savedManager.getExecutionContext().getLong("plan.minId")).isEqualTo(1001L);
+        assertThat(savedManager.getExecutionContext().getLong("plan.maxId")).isEqualTo(1010L);
+        assertThat(savedManager.getExecutionContext().getLong(InactiveUserPartitioner.PLAN_TOTAL)).isEqualTo(10L);
+
+        failing.set(false);
+        JobExecution restarted = jobLauncherTestUtils.launchJob(failed.getJobParameters());
+
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(restarted.getJobInstance().getId()).isEqualTo(failed.getJobInstance().getId());
+        // 완료된 3개 단위는 건너뛰고 실패한 단위만 다시 실행한다.
+        // StepExecutionSplitter는 건너뛴 단위의 StepExecution도 만들어 두므로 JobRepository에 기록된 실행만 확인한다.
+        assertThat(jobExplorer.getJobExecution(restarted.getId()).getStepExecutions().stream()
+                .map(StepExecution::getStepName)
+                .filter(name -> name.startsWith("partitionerStep:"))
+                .collect(Collectors.toList()))
+                .containsExactly("partitionerStep:InactiveUserTask2");
+        assertThat(stepExecution(restarted, "partitionerStep").getWriteCount()).isEqualTo(3);
+        // 진행률은 처음 계획(10명)이 아니라 재시작할 때 남은 대상 수와 비교한다.
+        assertThat(stepExecution(restarted, "partitionerStep").getExecutionContext().getLong(InactiveUserPartitioner.PLAN_REMAINING)).isEqualTo(3L);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * User 엔티티 대신 id 블록(long[])으로 휴면 전환하는 inactiveUserIdStep을 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2",
+        "inactive-user-job.id-only=true"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserIdOnlyJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void id_블록_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob(new JobParametersBuilder()
+                .addLong("chunkSize", 3L)); // 파티션마다 id 블록이 여러 개 만들어지도록 작게 설정
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        // 블록 수가 아니라 id 개수로 집계된다.
+        assertThat(managerStepExecution.getReadCount()).isEqualTo(10);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+        // 멀티 스레드 Step이므로 커밋되지 않았을 수 있는 읽은 위치를 저장하지 않는다.
+        assertThat(partitionStepExecution(jobExecution).getExecutionContext().containsKey("inactiveUserIdReader.last.id")).isFalse();
+    }
+}
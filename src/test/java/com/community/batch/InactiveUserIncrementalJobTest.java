@@ -0,0 +1,83 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.inactive.listener.InactiveUserCutoffListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 증분 모드에서 이전 실행의 기준 시각 이후에 대상이 된 회원만 전환하고, fullScan=true면 전체를 전환하는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.incremental=true"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserIncrementalJobTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void 증분_휴면_회원_전환_테스트() throws Exception {
+        JobExecution first = launch(false);
+        assertThat(first.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(activeCount()).isZero();
+        Date firstCutoff = (Date) first.getExecutionContext().get(InactiveUserCutoffListener.UPDATED_BEFORE);
+
+        // 이전 기준 시각보다 오래된 회원(증분 범위 밖)과, 이전 실행 이후 새로 1년이 지난 회원(증분 범위 안)
+        LocalDateTime previous = LocalDateTime.ofInstant(firstCutoff.toInstant(), ZoneId.systemDefault());
+        insertActiveUser(2001L, previous.minusDays(1));
+        insertActiveUser(2002L, LocalDateTime.now().minusYears(1));
+        Thread.sleep(10L);
+
+        JobExecution second = launch(false);
+        assertThat(second.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(second.getExecutionContext().get(InactiveUserCutoffListener.UPDATED_FROM)).isEqualTo(firstCutoff);
+        assertThat(statusOf(2001L)).isEqualTo(UserStatus.ACTIVE.name());
+        assertThat(statusOf(2002L)).isEqualTo(UserStatus.INACTIVE.name());
+
+        JobExecution fullScan = launch(true);
+        assertThat(fullScan.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(statusOf(2001L)).isEqualTo(UserStatus.INACTIVE.name());
+    }
+
+    private JobExecution launch(boolean fullScan) throws Exception {
+        return jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addDate("nowDate", new Date())
+                .addString(InactiveUserCutoffListener.FULL_SCAN, String.valueOf(fullScan))
+                .toJobParameters());
+    }
+
+    private void insertActiveUser(long id, LocalDateTime updatedDate) {
+        jdbcTemplate.update("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                        " values (?, 'test@test.com', 'test', 'test', 'FACEBOOK', 'ACTIVE', 'VIP', ?, ?)",
+                id, Timestamp.valueOf(updatedDate.minusYears(1)), Timestamp.valueOf(updatedDate));
+    }
+
+    private String statusOf(long id) {
+        return jdbcTemplate.queryForObject("select status from user where id = ?", String.class, id);
+    }
+
+    private int activeCount() {
+        return jdbcTemplate.queryForObject("select count(*) from user where status = 'ACTIVE'", Integer.class);
+    }
+}
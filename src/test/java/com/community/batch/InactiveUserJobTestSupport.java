@@ -0,0 +1,47 @@
+package com.community.batch;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+
+/**
+ * inactiveUserJob 실행 테스트에서 Job 실행과 Step 조회만 모아둔다.
+ * 실행 설정은 테스트마다 다르므로 @SpringBootTest 등 어노테이션은 각 테스트 클래스에 둔다.
+ */
+public abstract class InactiveUserJobTestSupport {
+
+    @Autowired
+    protected JobLauncherTestUtils jobLauncherTestUtils;
+
+    protected JobExecution launchJob() throws Exception {
+        return launchJob(new JobParametersBuilder());
+    }
+
+    /**
+     * @param parameters nowDate 외에 추가할 Job 파라미터
+     */
+    protected JobExecution launchJob(JobParametersBuilder parameters) throws Exception {
+        return jobLauncherTestUtils.launchJob(parameters.addDate("nowDate", new Date()).toJobParameters());
+    }
+
+    protected static StepExecution stepExecution(JobExecution jobExecution, String stepName) {
+        return jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().equals(stepName))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * 파티션 Step(partitionerStep:파티션 이름) 중 하나
+     */
+    protected static StepExecution partitionStepExecution(JobExecution jobExecution) {
+        return jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().startsWith("partitionerStep:"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,149 @@
+package com.community.batch;
+
+import com.community.batch.jobs.InactiveMetadataConfig;
+import com.community.batch.jobs.inactive.InactiveUserJobProperties;
+import com.community.batch.jobs.metadata.CompactExecutionContextSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 실행 중인 Step의 메타데이터를 flush-chunks 청크마다 기록해도 Step이 끝날 때는 마지막 위치가 저장되고,
+ * 바이너리로 저장한 ExecutionContext를 다시 읽을 수 있는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=1",
+        "inactive-user-job.chunk.adaptive=false",
+        "inactive-user-job.metadata.serializer=binary",
+        "inactive-user-job.metadata.flush-chunks=4",
+        "inactive-user-job.prefetch.enabled=true" // 멀티 스레드 Step에서 읽은 위치(last.id)는 미리 읽기 Reader로 감쌀 때만 저장된다.
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserMetadataJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void 메타데이터_기록_주기_테스트() throws Exception {
+        double skippedBefore = meterRegistry.counter("inactive.metadata.skipped", "type", "context").count();
+
+        JobExecution jobExecution = launchJob(new JobParametersBuilder().addLong("chunkSize", 1L));
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution workerStepExecution = partitionStepExecution(jobExecution);
+        assertThat(workerStepExecution.getWriteCount()).isEqualTo(10);
+        // 4번에 한번만 기록하므로 대부분의 커밋에서 ExecutionContext 기록을 건너뛴다.
+        int commitCount = workerStepExecution.getCommitCount();
+        assertThat(meterRegistry.counter("inactive.metadata.skipped", "type", "context").count() - skippedBefore)
+                .isGreaterThan(commitCount / 2.0);
+
+        // Step이 끝날 때는 마지막 위치를 기록한다.
+        Long lastUserId = jdbcTemplate.queryForObject("select max(id) from user where status = 'INACTIVE'", Long.class);
+        StepExecution savedStepExecution = jobExplorer.getStepExecution(jobExecution.getId(), workerStepExecution.getId());
+        assertThat(savedStepExecution.getExecutionContext().getLong("inactiveUserReader.last.id")).isEqualTo(lastUserId);
+        assertThat(savedStepExecution.getExecutionContext().get("updatedBefore")).isInstanceOf(Date.class);
+
+        String shortContext = jdbcTemplate.queryForObject("select short_context from batch_step_execution_context where step_execution_id = ?",
+                String.class, workerStepExecution.getId());
+        assertThat(shortContext).doesNotStartWith("{");
+    }
+
+    @Test
+    public void 바이너리_ExecutionContext_직렬화_테스트() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        context.put("string", "휴면");
+        context.put("long", 1L);
+        context.put("integer", 2);
+        context.put("double", 3.5);
+        context.put("boolean", true);
+        context.put("date", new Date(1000L));
+        context.put("localDateTime", LocalDateTime.of(2021, 1, 1, 0, 0));
+        context.put("list", new ArrayList<>(Arrays.asList(1L, 2L)));
+        context.put("null", null);
+
+        CompactExecutionContextSerializer serializer = new CompactExecutionContextSerializer();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        serializer.serialize(context, binary);
+        assertThat(serializer.deserialize(new ByteArrayInputStream(binary.toByteArray()))).isEqualTo(context);
+
+        // JSON으로 저장된 기존 컨텍스트도 읽는다.
+        Map<String, Object> stepContext = new HashMap<>();
+        stepContext.put("batch.taskletType", "org.springframework.batch.core.step.item.ChunkOrientedTasklet");
+        stepContext.put("batch.stepType", "org.springframework.batch.core.step.tasklet.TaskletStep");
+        stepContext.put("inactiveUserReader.last.id", 10L);
+        stepContext.put("updatedBefore", new Date());
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new Jackson2ExecutionContextStringSerializer().serialize(stepContext, json);
+        assertThat(serializer.deserialize(new ByteArrayInputStream(json.toByteArray()))).isEqualTo(stepContext);
+
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        serializer.serialize(stepContext, compact);
+        assertThat(compact.size()).isLessThan(json.size() / 2);
+    }
+
+    @Test
+    public void 신뢰하지_않는_클래스_역직렬화_거부_테스트() throws Exception {
+        CompactExecutionContextSerializer serializer = new CompactExecutionContextSerializer();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        serializer.serialize(Collections.singletonMap("uri", URI.create("http://localhost")), binary);
+
+        assertThatThrownBy(() -> serializer.deserialize(new ByteArrayInputStream(binary.toByteArray())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("java.net.URI");
+    }
+
+    @Test
+    public void 메모리_JobRepository_설정_검사_테스트() {
+        InactiveUserJobProperties remoteWorker = memoryRepositoryProperties();
+        remoteWorker.getRemote().setWorker(true);
+        assertThatThrownBy(() -> createBatchConfigurer(remoteWorker)).isInstanceOf(IllegalStateException.class);
+
+        InactiveUserJobProperties incremental = memoryRepositoryProperties();
+        incremental.setIncremental(true);
+        assertThatThrownBy(() -> createBatchConfigurer(incremental)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private InactiveUserJobProperties memoryRepositoryProperties() {
+        InactiveUserJobProperties properties = new InactiveUserJobProperties();
+        properties.getMetadata().setRepository(InactiveUserJobProperties.RepositoryType.MEMORY);
+        return properties;
+    }
+
+    // 설정 검사에서 실패하므로 나머지 인자는 사용되지 않는다.
+    private void createBatchConfigurer(InactiveUserJobProperties properties) {
+        new InactiveMetadataConfig().batchConfigurer(null, null, null, null, properties, null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.community.batch;
+
+import com.community.batch.jobs.notice.InactiveNotice;
+import com.community.batch.jobs.notice.InactiveNoticeSender;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 휴면 전환 다음에 안내가 발송되고, 발송 실패 후 재시작하면 보내지 못한 회원에게만 다시 보내는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.notice.enabled=true",
+        "inactive-user-job.notice.sender=test",
+        "inactive-user-job.notice.permits-per-second=1000"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserNoticeJobTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private FailOnceNoticeSender inactiveNoticeSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void 휴면_전환_안내_발송_재시작_테스트() throws Exception {
+        JobParameters jobParameters = new JobParametersBuilder().addDate("nowDate", new Date()).toJobParameters();
+
+        JobExecution failedExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        assertThat(failedExecution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(noticeStep(failedExecution).getStatus()).isEqualTo(BatchStatus.FAILED);
+        // 휴면 전환은 발송 실패와 관계없이 커밋된다.
+        assertThat(jdbcTemplate.queryForObject("select count(*) from user where status = 'INACTIVE'", Long.class)).isEqualTo(10L);
+        assertThat(inactiveNoticeSender.sentCounts).hasSize(9);
+        assertThat(historyCount()).isEqualTo(9L);
+
+        JobExecution restartedExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        assertThat(restartedExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(noticeStep(restartedExecution).getWriteCount()).isEqualTo(1);
+        assertThat(inactiveNoticeSender.sentCounts).hasSize(10);
+        assertThat(inactiveNoticeSender.sentCounts.values()).allMatch(count -> count.get() == 1);
+        assertThat(historyCount()).isEqualTo(10L);
+    }
+
+    private long historyCount() {
+        return jdbcTemplate.queryForObject("select count(*) from inactive_notice_history", Long.class);
+    }
+
+    private StepExecution noticeStep(JobExecution jobExecution) {
+        return jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().equals("inactiveNoticeStep"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @TestConfiguration
+    static class NoticeSenderConfig {
+
+        @Bean
+        public FailOnceNoticeSender inactiveNoticeSender() {
+            return new FailOnceNoticeSender();
+        }
+    }
+
+    /**
+     * 처음 호출된 한 건만 실패하고, 성공한 발송은 noticeKey별 횟수로 기록한다.
+     */
+    static class FailOnceNoticeSender implements InactiveNoticeSender {
+
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final Map<String, AtomicInteger> sentCounts = new ConcurrentHashMap<>();
+
+        @Override
+        public void send(InactiveNotice notice) {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Mail server unavailable");
+            }
+            sentCounts.computeIfAbsent(notice.getNoticeKey(), key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 청크를 쓰는 동안 다음 청크를 미리 읽는 inactiveUserPrefetchReader를 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2",
+        "inactive-user-job.prefetch.enabled=true",
+        "inactive-user-job.chunk.size=3"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserPrefetchJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 미리_읽기_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getReadCount()).isEqualTo(10);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
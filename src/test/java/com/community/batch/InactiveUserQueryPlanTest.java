@@ -0,0 +1,114 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.Grade;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 휴면회원 배치 조회 쿼리가 인덱스를 사용하는지 H2의 EXPLAIN 결과로 확인한다.
+ * 손으로 옮긴 SQL 대신 Job과 Repository가 실제로 실행한 SQL 문을 StatementCountingDataSource로 모아서 EXPLAIN 한다.
+ * 인덱스를 타지 못하면 실행 계획에 tableScan이 나온다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserQueryPlanTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 휴면_전환_Job_실행_계획_테스트() throws Exception {
+        StatementCountingDataSource.reset();
+
+        assertThat(launchJob().getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        // 파티셔너의 대상 id 구간 조회
+        assertIndexScan(executed(sql -> sql.startsWith("select min(id), max(id), count(*) from user ")));
+        // 키셋 Reader (JPQL에서 만들어진 SQL)
+        assertIndexScan(executed(sql -> sql.startsWith("select ") && sql.contains(" from user ")
+                && sql.contains("status=?") && sql.contains(" order by ")));
+        // 휴면 전환 UPDATE: 수정일 조건이 함께 있어도 어떤 인덱스를 쓰든 id 조건으로 읽는 범위가 정해져야 한다.
+        for (String sql : executed(sql -> sql.startsWith("update user set status = ?"))) {
+            assertThat(explain(sql))
+                    .doesNotContainIgnoringCase("tableScan")
+                    .containsPattern("(?i)/\\*[^*]*(ID IN\\(|ID >= )");
+        }
+    }
+
+    @Test
+    public void id_블록_Reader_실행_계획_테스트() {
+        StatementCountingDataSource.reset();
+
+        userJdbcRepository.findInactiveCandidateIds(0, Long.MAX_VALUE, LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.now(), new long[100]);
+
+        assertIndexScan(executed(sql -> sql.startsWith("select id from user ")));
+    }
+
+    @Test
+    public void 등급별_조회_실행_계획_테스트() {
+        StatementCountingDataSource.reset();
+
+        userRepository.findByUpdatedDateBeforeAndStatusEqualsAndGradeEquals(LocalDateTime.now(), UserStatus.ACTIVE, Grade.VIP);
+
+        assertIndexScan(executed(sql -> sql.startsWith("select ") && sql.contains(" from user ") && sql.contains("grade=?")));
+    }
+
+    private static Set<String> executed(Predicate<String> filter) {
+        Set<String> statements = StatementCountingDataSource.statements(filter);
+        assertThat(statements).isNotEmpty();
+        return statements;
+    }
+
+    private void assertIndexScan(Set<String> statements) {
+        for (String sql : statements) {
+            assertThat(explain(sql))
+                    .doesNotContainIgnoringCase("tableScan")
+                    .containsIgnoringCase("IDX_USER_STATUS");
+        }
+    }
+
+    /**
+     * 파라미터(?)는 값 없이 EXPLAIN 한다. 실행 계획은 값이 아니라 조건 형태로 정해진다.
+     */
+    private String explain(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class);
+        return String.join("\n", plan);
+    }
+
+    @TestConfiguration
+    static class StatementCountConfig {
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return StatementCountingDataSource.postProcessor();
+        }
+    }
+}
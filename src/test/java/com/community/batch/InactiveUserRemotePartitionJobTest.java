@@ -0,0 +1,45 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * manager와 worker를 같은 JVM에서 프로세스 내부 채널로 연결해서 원격 파티셔닝을 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=4",
+        "inactive-user-job.remote.manager=true",
+        "inactive-user-job.remote.worker=true",
+        "inactive-user-job.remote.poll-interval=100"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserRemotePartitionJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 원격_파티셔닝_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jobExecution.getStepExecutions()).hasSize(5); // partitionerStep + worker 파티션 4개
+        // manager는 JobRepository에 기록된 worker 실행 결과를 모아서 집계한다.
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
@@ -0,0 +1,174 @@
+package com.community.batch;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대량 데이터 성능 회귀 테스트 (기본 빌드에서는 실행되지 않는다.)
+ * ./gradlew scaleTest -Pscale.users=100000,1000000,10000000
+ *
+ * UserDataGenerator로 회원을 넣고 inactiveUserJob을 실행해서 실행 시간, 초당 처리 건수, 최대 힙 사용량, 실행한 SQL 문 수를 측정한다.
+ * scale-baseline.properties의 같은 회원 수 기준값보다 scale.tolerance(기본 20%) 넘게 나빠지거나, 기준값이 없으면 실패한다.
+ * 측정값은 build/scale-results.properties에 같은 형식으로 남기므로 기준값을 갱신할 때 그대로 옮기면 된다.
+ * 기본은 내장 H2이고, -Pscale.datasource=jdbc:mysql://... (spring.datasource.url)로 실행하면 해당 DB로 측정한다.
+ * 측정 전에 user 테이블을 모두 지우므로 메모리 DB가 아니면 테스트 전용 스키마에서 -Pscale.allowDelete=true를 함께 지정해야 한다.
+ */
+@Tag("scale")
+@EnabledIfSystemProperty(named = "scale.users", matches = "[0-9,_]+")
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.type.descriptor.sql=warn"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class InactiveUserScaleTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InactiveUserScaleTest.class);
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Integer> users() {
+        return Arrays.stream(System.getProperty("scale.users").split(","))
+                .map(users -> Integer.valueOf(users.trim().replace("_", "")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("users")
+    public void 대량_휴면_회원_전환_성능_테스트(int users) throws Exception {
+        long candidates = new UserDataGenerator(jdbcTemplate)
+                .allowNonEmbedded(Boolean.getBoolean("scale.allowDelete"))
+                .generate(users);
+
+        System.gc();
+        resetPeakHeap();
+        StatementCountingDataSource.reset();
+        long start = System.nanoTime();
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(
+                new JobParametersBuilder().addDate("nowDate", new Date()).toJobParameters()
+        );
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().equals("partitionerStep"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(candidates);
+
+        Properties result = new Properties();
+        result.setProperty(users + ".wallMillis", String.valueOf(wallMillis));
+        result.setProperty(users + ".itemsPerSecond", String.valueOf(candidates * 1000 / Math.max(1, wallMillis)));
+        result.setProperty(users + ".peakHeapMb", String.valueOf(peakHeap() / (1024 * 1024)));
+        result.setProperty(users + ".statements", String.valueOf(StatementCountingDataSource.count()));
+        log.info("Scale result: {}", result);
+        saveResult(result);
+
+        Properties baseline = PropertiesLoaderUtils.loadProperties(new ClassPathResource("scale-baseline.properties"));
+        double tolerance = Double.parseDouble(System.getProperty("scale.tolerance", "0.2"));
+        assertThat(Long.parseLong(result.getProperty(users + ".wallMillis")))
+                .as(users + ".wallMillis")
+                .isLessThanOrEqualTo((long) (baseline(baseline, users + ".wallMillis") * (1 + tolerance)));
+        assertThat(Long.parseLong(result.getProperty(users + ".peakHeapMb")))
+                .as(users + ".peakHeapMb")
+                .isLessThanOrEqualTo((long) (baseline(baseline, users + ".peakHeapMb") * (1 + tolerance)));
+        assertThat(Long.parseLong(result.getProperty(users + ".statements")))
+                .as(users + ".statements")
+                .isLessThanOrEqualTo((long) (baseline(baseline, users + ".statements") * (1 + tolerance)));
+        assertThat(Long.parseLong(result.getProperty(users + ".itemsPerSecond")))
+                .as(users + ".itemsPerSecond")
+                .isGreaterThanOrEqualTo((long) (baseline(baseline, users + ".itemsPerSecond") * (1 - tolerance)));
+    }
+
+    /**
+     * 기준값이 없는 회원 수는 비교하지 못하므로 실패한다. 측정값(build/scale-results.properties)을 기준값 파일에 옮긴 뒤 다시 실행한다.
+     */
+    private static long baseline(Properties baseline, String key) {
+        String expected = baseline.getProperty(key);
+        assertThat(expected)
+                .as("No baseline for %s in scale-baseline.properties, copy it from build/scale-results.properties", key)
+                .isNotNull();
+        return Long.parseLong(expected);
+    }
+
+    private static void saveResult(Properties result) throws IOException {
+        Path path = Paths.get("build", "scale-results.properties");
+        Files.createDirectories(path.getParent());
+        Properties saved = new Properties();
+        if (Files.exists(path)) {
+            saved.load(Files.newBufferedReader(path));
+        }
+        saved.putAll(result);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            saved.store(out, "inactiveUserJob scale test results");
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * 실행한 SQL 문 수를 세도록 DataSource를 감싼다.
+     */
+    @TestConfiguration
+    static class StatementCountConfig {
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return StatementCountingDataSource.postProcessor();
+        }
+    }
+}
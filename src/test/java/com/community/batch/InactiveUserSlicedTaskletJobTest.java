@@ -0,0 +1,51 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 임시 파일 없이 Tasklet 모드(parallelism 1)로 실행해도 수정일 조건 안의 회원만 slice-size 개씩 나눠 커밋하는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.tasklet.enabled=true",
+        "inactive-user-job.tasklet.parallelism=1",
+        "inactive-user-job.tasklet.slice-size=3",
+        "inactive-user-job.staging.enabled=false"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserSlicedTaskletJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void 조각_단위_Tasklet_휴면_회원_전환_테스트() throws Exception {
+        // 최근에 수정된 회원은 updatedBefore 밖이므로 전환하지 않는다.
+        jdbcTemplate.update("update user set updated_date = now() where id = 1010");
+
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution taskletStepExecution = stepExecution(jobExecution, "inactiveTaskletStep");
+        assertThat(taskletStepExecution.getWriteCount()).isEqualTo(9);
+        // 3명씩 3번, 대상이 남았는지 확인하는 마지막 회차까지 4번 커밋된다.
+        assertThat(taskletStepExecution.getCommitCount()).isEqualTo(4);
+        assertThat(taskletStepExecution.getExecutionContext().getLong("inactiveItemTasklet.last.id")).isEqualTo(1009L);
+        assertThat(userRepository.findById(1010L).get().getStatus()).isEqualTo(UserStatus.ACTIVE);
+    }
+}
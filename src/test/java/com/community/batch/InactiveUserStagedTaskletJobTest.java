@@ -0,0 +1,48 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tasklet 모드(parallelism 1)가 대상 id를 임시 파일에 모아 slice-size 개씩 전환하고, Job이 끝나면 파일을 삭제하는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.tasklet.enabled=true",
+        "inactive-user-job.tasklet.parallelism=1",
+        "inactive-user-job.tasklet.slice-size=3",
+        "inactive-user-job.staging.buffer-size=2",
+        "inactive-user-job.staging.directory=${java.io.tmpdir}/inactive-staging-test"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserStagedTaskletJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 임시_파일_Tasklet_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution taskletStepExecution = stepExecution(jobExecution, "inactiveTaskletStep");
+        assertThat(taskletStepExecution.getWriteCount()).isEqualTo(10);
+        // 3명씩 4번에 나눠 커밋된다.
+        assertThat(taskletStepExecution.getCommitCount()).isEqualTo(4);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+        assertThat(new File(System.getProperty("java.io.tmpdir"), "inactive-staging-test").list()).isEmpty();
+    }
+}
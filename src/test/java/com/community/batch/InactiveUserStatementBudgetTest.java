@@ -0,0 +1,97 @@
+package com.community.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * prod 프로필로 inactiveUserStep을 실행해서 청크당 user 테이블 SQL 문 수가 예산을 넘지 않는지 검증한다.
+ * 청크마다 페이지 조회 한번과 일괄 UPDATE 한번만 실행되어야 하고, 아이템마다 SQL 문이 실행되도록 바뀌면 실패한다.
+ * 스키마는 Hibernate가 만들지 않고 prod 프로필의 마이그레이션으로 만든 뒤 validate로 확인하므로, 마이그레이션이 빠지면 컨텍스트가 뜨지 않는다.
+ */
+@ActiveProfiles("prod")
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        // 마이그레이션 전의 운영 DB(user 테이블만 있음)를 H2로 흉내 내고, prod 프로필의 마이그레이션(H2 버전)과 ddl-auto=validate를 그대로 사용한다.
+        "spring.datasource.url=jdbc:h2:mem:prod-schema;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/h2/existing-schema.sql'",
+        "spring.sql.init.platform=h2",
+        "inactive-user-job.grid-size=1",
+        "inactive-user-job.throttle-limit=1", // 청크 경계가 스레드 순서에 따라 달라지지 않도록 한다.
+        "inactive-user-job.chunk.adaptive=false"
+})
+public class InactiveUserStatementBudgetTest {
+
+    private static final long CHUNK_SIZE = 5L;
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlInitializationProperties sqlInitializationProperties;
+
+    @Test
+    public void 운영_스키마_마이그레이션_테스트() {
+        assertThat(jdbcTemplate.queryForList("select index_name from information_schema.indexes where table_name = 'USER'", String.class))
+                .contains("IDX_USER_STATUS_ID_UPDATED_DATE", "IDX_USER_STATUS_GRADE_UPDATED_DATE", "IDX_USER_STATUS_UPDATED_DATE");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from information_schema.tables where table_name = 'INACTIVE_NOTICE_HISTORY'", Long.class))
+                .isEqualTo(1L);
+
+        // 시작할 때마다 실행되므로 이미 적용된 DB에서 다시 실행해도 실패하지 않아야 한다.
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        ResourceLoader resourceLoader = new DefaultResourceLoader();
+        sqlInitializationProperties.getSchemaLocations().forEach(location -> populator.addScript(resourceLoader.getResource(location)));
+        populator.execute(jdbcTemplate.getDataSource());
+    }
+
+    @Test
+    public void 청크당_SQL_문_수_예산_테스트() throws Exception {
+        StatementCountingDataSource.reset();
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(
+                new JobParametersBuilder().addDate("nowDate", new Date()).addLong("chunkSize", CHUNK_SIZE).toJobParameters()
+        );
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution workerStepExecution = jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().startsWith("partitionerStep:"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(workerStepExecution.getWriteCount()).isEqualTo(10);
+        long chunks = (workerStepExecution.getWriteCount() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        // 청크마다 일괄 UPDATE 한번
+        assertThat(StatementCountingDataSource.count(sql -> sql.startsWith("update user "))).isEqualTo(chunks);
+        // 청크마다 페이지 조회 한번, 파티션 id 구간 조회와 마지막 빈 페이지 조회가 한번씩 더해진다.
+        assertThat(StatementCountingDataSource.count(sql -> sql.startsWith("select") && sql.contains(" from user ")))
+                .isLessThanOrEqualTo(chunks + 2);
+    }
+
+    @TestConfiguration
+    static class StatementCountConfig {
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return StatementCountingDataSource.postProcessor();
+        }
+    }
+}
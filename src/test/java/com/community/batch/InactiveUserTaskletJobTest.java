@@ -0,0 +1,45 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티셔닝 없이 InactiveItemTasklet을 ForkJoinPool로 병렬 실행하는 모드를 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.tasklet.enabled=true",
+        "inactive-user-job.tasklet.parallelism=2",
+        "inactive-user-job.tasklet.slice-size=2"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserTaskletJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void 병렬_Tasklet_휴면_회원_전환_테스트() throws Exception {
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution taskletStepExecution = stepExecution(jobExecution, "inactiveTaskletStep");
+        assertThat(taskletStepExecution.getWriteCount()).isEqualTo(10);
+        // 회차마다 parallelism * slice-size = 4명씩 조회하므로 3번에 나눠 커밋된다.
+        assertThat(taskletStepExecution.getCommitCount()).isEqualTo(3);
+        assertThat(taskletStepExecution.getExecutionContext().getLong("inactiveItemTasklet.last.id")).isEqualTo(1010L);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package com.community.batch;
+
+import com.community.batch.repository.UserJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * writeCount가 커밋된 청크의 실제 변경 건수만 집계하는지 검증한다.
+ * 롤백된 쓰기는 집계되지 않고, 읽은 뒤에 수정되어 전환되지 않은 회원은 filterCount로 옮겨진다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=2",
+        "inactive-user-job.retry.initial-interval-millis=1"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserWriteCountJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private UserJdbcRepository userJdbcRepository;
+
+    @Test
+    public void 커밋된_변경_건수만_쓰기_건수_집계_테스트() throws Exception {
+        // 첫 쓰기는 변경한 뒤 데드락으로 롤백되고, 다시 쓰기 전에 회원 한 명이 로그인 등으로 수정된다.
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new DeadlockLoserDataAccessException("deadlock", null);
+        }).doAnswer(invocation -> {
+            long[] ids = invocation.getArgument(0);
+            jdbcTemplate.update("update user set updated_date = ? where id = ?", LocalDateTime.now(), ids[0]);
+            return invocation.callRealMethod();
+        }).doCallRealMethod()
+                .when(userJdbcRepository).updateInactive(any(long[].class), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getReadCount()).isEqualTo(10);
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(9);
+        assertThat(managerStepExecution.getFilterCount()).isEqualTo(1);
+        assertThat(managerStepExecution.getRollbackCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * 청크 쓰기가 데드락으로 실패해도 재시도해서 모두 전환되고, 경합 횟수가 기록되는지 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "inactive-user-job.grid-size=1",
+        "inactive-user-job.retry.initial-interval-millis=1"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class InactiveUserWriteRetryJobTest extends InactiveUserJobTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private UserJdbcRepository userJdbcRepository;
+
+    @Test
+    public void 데드락_재시도_휴면_회원_전환_테스트() throws Exception {
+        // 첫 쓰기만 데드락으로 실패시킨다.
+        doThrow(new DeadlockLoserDataAccessException("deadlock", null))
+                .doCallRealMethod()
+                .when(userJdbcRepository).updateInactive(any(long[].class), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+
+        JobExecution jobExecution = launchJob();
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution managerStepExecution = stepExecution(jobExecution, "partitionerStep");
+        assertThat(managerStepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(meterRegistry.counter("inactive.write.contention", "exception", "DeadlockLoserDataAccessException").count())
+                .isEqualTo(1.0);
+        assertThat(userRepository.findByUpdatedDateBeforeAndStatusEquals(LocalDateTime.now().minusYears(1), UserStatus.ACTIVE)).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.community.batch;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.readers.JpaKeysetPagingItemReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class JpaKeysetPagingItemReaderTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void 키셋_페이징_전체_조회_테스트() throws Exception {
+        JpaKeysetPagingItemReader<User> reader = createReader();
+        reader.open(new ExecutionContext());
+
+        List<Long> ids = readAll(reader);
+        reader.close();
+
+        assertThat(ids).hasSize(10);
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    public void 키셋_페이징_재시작_테스트() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        JpaKeysetPagingItemReader<User> reader = createReader();
+        reader.open(executionContext);
+        for (int i = 0; i < 4; i++) {
+            reader.read();
+        }
+        reader.update(executionContext);
+        reader.close();
+
+        JpaKeysetPagingItemReader<User> restarted = createReader();
+        restarted.open(executionContext);
+        List<Long> ids = readAll(restarted);
+        restarted.close();
+
+        assertThat(ids).containsExactly(1005L, 1006L, 1007L, 1008L, 1009L, 1010L);
+    }
+
+    private JpaKeysetPagingItemReader<User> createReader() {
+        JpaKeysetPagingItemReader<User> reader = new JpaKeysetPagingItemReader<>();
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setQueryString("select u from User u where u.id > :lastId and u.status = :status order by u.id");
+        reader.setParameterValues(Collections.singletonMap("status", UserStatus.ACTIVE));
+        reader.setIdExtractor(User::getId);
+        reader.setPageSize(3);
+        return reader;
+    }
+
+    private List<Long> readAll(JpaKeysetPagingItemReader<User> reader) {
+        List<Long> ids = new ArrayList<>();
+        User user;
+        while ((user = reader.read()) != null) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
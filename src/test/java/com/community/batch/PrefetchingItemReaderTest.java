@@ -0,0 +1,184 @@
+package com.community.batch;
+
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.jobs.readers.JpaKeysetPagingItemReader;
+import com.community.batch.jobs.readers.PrefetchingItemReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class PrefetchingItemReaderTest {
+
+    private static final String LAST_ID_KEY = "delegate.last.id";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void 미리_읽기_전체_조회_테스트() throws Exception {
+        PrefetchingItemReader<User> reader = createReader(new CountDownLatch(0));
+        reader.open(new ExecutionContext());
+
+        List<Long> ids = readAll(reader);
+        reader.close();
+
+        assertThat(ids).hasSize(10);
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    public void 미리_읽기_재시작_테스트() throws Exception {
+        CountDownLatch readAhead = new CountDownLatch(6);
+        ExecutionContext executionContext = new ExecutionContext();
+        PrefetchingItemReader<User> reader = createReader(readAhead);
+        reader.open(executionContext);
+        for (int i = 0; i < 4; i++) {
+            reader.read();
+        }
+        assertThat(readAhead.await(10, TimeUnit.SECONDS)).isTrue(); // 읽기 스레드가 꺼내간 4건보다 앞서 읽었다.
+        reader.update(executionContext);
+        reader.close();
+
+        // 읽기 스레드는 앞서 읽었지만, 꺼내간 4건 이후부터 다시 읽는다.
+        PrefetchingItemReader<User> restarted = createReader(new CountDownLatch(0));
+        restarted.open(executionContext);
+        List<Long> ids = readAll(restarted);
+        restarted.close();
+
+        assertThat(ids).containsExactly(1005L, 1006L, 1007L, 1008L, 1009L, 1010L);
+    }
+
+    @Test
+    public void 다른_스레드의_커밋되지_않은_청크는_저장하지_않음_테스트() throws Exception {
+        CountDownLatch readAhead = new CountDownLatch(5);
+        ExecutionContext executionContext = new ExecutionContext();
+        PrefetchingItemReader<User> reader = createReader(readAhead);
+        reader.open(executionContext);
+        StepContext stepContext = new StepContext(MetaDataInstanceFactory.createStepExecution());
+        ChunkContext otherChunk = new ChunkContext(stepContext);
+        ChunkContext chunk = new ChunkContext(stepContext);
+
+        // 다른 스레드가 1001, 1002를 꺼내가서 아직 커밋하지 않았다.
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        otherThread.submit(() -> {
+            reader.beforeChunk(otherChunk);
+            reader.read();
+            reader.read();
+            return null;
+        }).get();
+
+        // 이 스레드는 1003, 1004를 꺼내서 커밋한다.
+        reader.beforeChunk(chunk);
+        reader.read();
+        reader.read();
+        assertThat(readAhead.await(10, TimeUnit.SECONDS)).isTrue();
+        reader.update(executionContext);
+        assertThat(executionContext.containsKey(LAST_ID_KEY)).isFalse();
+        reader.afterChunk(chunk);
+
+        // 다른 스레드의 청크가 커밋된 뒤에야 4건까지 저장한다.
+        otherThread.submit(() -> reader.afterChunk(otherChunk)).get();
+        otherThread.shutdown();
+        reader.update(executionContext);
+        reader.close();
+
+        assertThat(executionContext.getLong(LAST_ID_KEY)).isEqualTo(1004L);
+    }
+
+    @Test
+    public void 읽기_스레드를_기다리는_동안_다른_청크_커밋_테스트() throws Exception {
+        Semaphore permits = new Semaphore(2);
+        ExecutionContext executionContext = new ExecutionContext();
+        PrefetchingItemReader<User> reader = createReader(new CountDownLatch(0), permits);
+        reader.open(executionContext);
+        StepContext stepContext = new StepContext(MetaDataInstanceFactory.createStepExecution());
+        ChunkContext chunk = new ChunkContext(stepContext);
+        ChunkContext waitingChunk = new ChunkContext(stepContext);
+
+        reader.beforeChunk(chunk);
+        reader.read();
+        reader.read();
+
+        // delegate가 막혀 있어서 다른 스레드는 큐에서 다음 아이템을 기다린다.
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        Future<User> waiting = otherThread.submit(() -> {
+            reader.beforeChunk(waitingChunk);
+            return reader.read();
+        });
+        Thread.sleep(100);
+        assertThat(waiting.isDone()).isFalse();
+
+        // 기다리는 스레드가 있어도 이 청크의 커밋은 바로 끝난다. (락을 잡고 기다리면 2초 뒤 delegate가 풀릴 때까지 막힌다.)
+        ScheduledExecutorService releaser = Executors.newSingleThreadScheduledExecutor();
+        releaser.schedule(() -> permits.release(Integer.MAX_VALUE / 2), 2, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        reader.update(executionContext);
+        reader.afterChunk(chunk);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+        assertThat(executionContext.getLong(LAST_ID_KEY)).isEqualTo(1002L);
+
+        assertThat(waiting.get(10, TimeUnit.SECONDS).getId()).isEqualTo(1003L);
+        otherThread.shutdown();
+        releaser.shutdown();
+        reader.close();
+    }
+
+    /**
+     * @param readAhead delegate가 한 건 읽을 때마다 줄어드는 latch
+     */
+    private PrefetchingItemReader<User> createReader(CountDownLatch readAhead) {
+        return createReader(readAhead, new Semaphore(Integer.MAX_VALUE));
+    }
+
+    /**
+     * @param permits delegate가 한 건 읽기 전에 하나씩 가져가는 허가, 없으면 읽기 스레드가 기다린다.
+     */
+    private PrefetchingItemReader<User> createReader(CountDownLatch readAhead, Semaphore permits) {
+        JpaKeysetPagingItemReader<User> delegate = new JpaKeysetPagingItemReader<User>() {
+            @Override
+            public synchronized User read() {
+                permits.acquireUninterruptibly();
+                User user = super.read();
+                readAhead.countDown();
+                return user;
+            }
+        };
+        delegate.setName("delegate");
+        delegate.setEntityManagerFactory(entityManagerFactory);
+        delegate.setQueryString("select u from User u where u.id > :lastId and u.status = :status order by u.id");
+        delegate.setParameterValues(Collections.singletonMap("status", UserStatus.ACTIVE));
+        delegate.setIdExtractor(User::getId);
+        delegate.setPageSize(3);
+        return new PrefetchingItemReader<>(delegate, new SimpleAsyncTaskExecutor("Prefetch_Test"), 4, 2);
+    }
+
+    private List<Long> readAll(PrefetchingItemReader<User> reader) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        User user;
+        while ((user = reader.read()) != null) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,121 @@
+package com.community.batch;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * DataSource를 감싸서 Statement의 execute 계열 호출 수를 SQL 문별로 센다. (JPA, JdbcTemplate, 배치 메타데이터 모두 포함)
+ * 테스트의 @TestConfiguration에서 postProcessor()를 빈으로 등록하면 애플리케이션의 DataSource가 이 클래스로 감싸진다.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    // 소문자로 바꾼 SQL 문 -> 실행 횟수, IN 목록 길이별로만 달라지므로 종류가 많지 않다.
+    private static final Map<String, LongAdder> EXECUTED = new ConcurrentHashMap<>();
+
+    StatementCountingDataSource(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    public static BeanPostProcessor postProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? new StatementCountingDataSource((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    public static void reset() {
+        EXECUTED.clear();
+    }
+
+    public static long count() {
+        return count(sql -> true);
+    }
+
+    /**
+     * @param filter 소문자로 바꾼 SQL 문 조건
+     */
+    public static long count(Predicate<String> filter) {
+        return EXECUTED.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    /**
+     * @param filter 소문자로 바꾼 SQL 문 조건
+     * @return 조건에 맞는 실행된 SQL 문 (소문자)
+     */
+    public static Set<String> statements(Predicate<String> filter) {
+        return EXECUTED.keySet().stream()
+                .filter(filter)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (!(result instanceof Statement)) {
+                        return result;
+                    }
+                    // prepareStatement, prepareCall은 첫 번째 인자가 SQL 문이다.
+                    String preparedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    return countingStatement((Statement) result, preparedSql);
+                });
+    }
+
+    private static Statement countingStatement(Statement statement, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType(statement)},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                        EXECUTED.computeIfAbsent(sql == null ? "" : sql.trim().toLowerCase(Locale.ROOT), key -> new LongAdder()).increment();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Class<?> statementType(Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        return statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
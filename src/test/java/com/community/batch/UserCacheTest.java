@@ -0,0 +1,102 @@
+package com.community.batch;
+
+import com.community.batch.cache.UserCache;
+import com.community.batch.cache.UserCacheEvictor;
+import com.community.batch.domain.User;
+import com.community.batch.domain.enums.UserStatus;
+import com.community.batch.repository.UserJdbcRepository;
+import com.community.batch.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.batch.job.enabled=false",
+        "spring.cache.type=caffeine"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class UserCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    public void 휴면_전환_후_캐시_무효화_테스트() {
+        jdbcTemplate.update("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                " values (3001, 'cache@test.com', 'cache', 'cache', 'FACEBOOK', 'ACTIVE', 'VIP', now(), now())");
+
+        assertThat(userRepository.findByEmail("cache@test.com").getStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(userRepository.findByEmail("cache@test.com").getStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(nativeCache().stats().hitCount()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status ->
+                userJdbcRepository.updateInactive(new long[]{3001L}, 1, LocalDateTime.now(), LocalDateTime.now()));
+
+        User user = userRepository.findByEmail("cache@test.com");
+        assertThat(user.getStatus()).isEqualTo(UserStatus.INACTIVE);
+    }
+
+    @Test
+    public void JPA_수정_후_캐시_무효화_테스트() {
+        jdbcTemplate.update("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                " values (3003, 'jpa@test.com', 'jpa', 'jpa', 'FACEBOOK', 'ACTIVE', 'VIP', now(), now())");
+        assertThat(userRepository.findByEmail("jpa@test.com").getStatus()).isEqualTo(UserStatus.ACTIVE);
+
+        // 변경 감지로 UPDATE 되면 Hibernate post-update 이벤트로 캐시에서 지운다.
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findById(3003L).orElseThrow(IllegalStateException::new).setInactive());
+
+        assertThat(userRepository.findByEmail("jpa@test.com").getStatus()).isEqualTo(UserStatus.INACTIVE);
+    }
+
+    @Test
+    public void 조회_중에_무효화된_회원은_캐시하지_않음_테스트() {
+        UserCache userCache = new UserCache(new CaffeineCache("emails", Caffeine.newBuilder().build()),
+                new CaffeineCache("users", Caffeine.newBuilder().build()));
+        jdbcTemplate.update("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                " values (3002, 'race@test.com', 'race', 'race', 'FACEBOOK', 'ACTIVE', 'VIP', now(), now())");
+        User active = userRepository.findById(3002L).orElseThrow(IllegalStateException::new);
+
+        // 커밋 전에 ACTIVE를 읽은 조회가 끝나기 전에 휴면 전환이 커밋되어 무효화되었다.
+        User loaded = userCache.get("race@test.com", () -> {
+            userCache.invalidate(3002L);
+            return active;
+        });
+
+        assertThat(loaded).isSameAs(active);
+        assertThat(userCache.get("race@test.com")).isNull();
+
+        // 무효화 이후에 시작한 조회는 다시 캐시된다.
+        userCache.get("race@test.com", () -> active);
+        assertThat(userCache.get("race@test.com").get()).isSameAs(active);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        return (Cache<Object, Object>) cacheManager.getCache(UserCacheEvictor.USERS_BY_EMAIL).getNativeCache();
+    }
+}
@@ -0,0 +1,152 @@
+package com.community.batch;
+
+import com.community.batch.domain.enums.Grade;
+import com.community.batch.domain.enums.SocialType;
+import com.community.batch.domain.enums.UserStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * 대량 테스트용 회원 데이터 생성기
+ * user 테이블을 비우고 id 1부터 users 명을 JDBC 배치 insert로 넣는다.
+ * 등급 비율, ACTIVE 비율, 휴면 전환 대상(수정일이 1년 넘게 지난 회원) 비율을 설정할 수 있고,
+ * 같은 seed면 항상 같은 데이터가 만들어진다.
+ *
+ * user 테이블을 모두 지우므로 기본적으로 메모리 DB(jdbc:h2:mem 등)에서만 실행된다.
+ * 다른 DB는 테스트 전용 스키마나 컨테이너일 때만 allowNonEmbedded(true)로 허용한다.
+ */
+public class UserDataGenerator {
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final SocialType[] SOCIAL_TYPES = SocialType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private int batchSize = 1000;
+    private long seed = 42L;
+    private double[] gradeWeights = {1, 3, 6}; // Grade.values() 순서 (VIP, GOLD, FAMILY)
+    private double activeRatio = 0.9;
+    private double candidateRatio = 0.5;
+    private boolean allowNonEmbedded;
+
+    public UserDataGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public UserDataGenerator batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public UserDataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Grade.values() 순서대로의 가중치
+     */
+    public UserDataGenerator gradeWeights(double... gradeWeights) {
+        this.gradeWeights = gradeWeights;
+        return this;
+    }
+
+    public UserDataGenerator activeRatio(double activeRatio) {
+        this.activeRatio = activeRatio;
+        return this;
+    }
+
+    /**
+     * 수정일이 1년 넘게 지난 회원의 비율, 나머지는 최근 1년 이내에 수정된 회원이다.
+     */
+    public UserDataGenerator candidateRatio(double candidateRatio) {
+        this.candidateRatio = candidateRatio;
+        return this;
+    }
+
+    /**
+     * 메모리 DB가 아니어도 user 테이블을 지우고 데이터를 넣는다.
+     */
+    public UserDataGenerator allowNonEmbedded(boolean allowNonEmbedded) {
+        this.allowNonEmbedded = allowNonEmbedded;
+        return this;
+    }
+
+    /**
+     * @return 휴면 전환 대상 수 (ACTIVE 이면서 수정일이 1년 넘게 지난 회원)
+     */
+    public long generate(int users) {
+        String url = databaseUrl();
+        if (!allowNonEmbedded && !isInMemory(url)) {
+            throw new IllegalStateException("Refusing to delete all users from " + url + ", use a dedicated test database and allowNonEmbedded(true)");
+        }
+        jdbcTemplate.update("delete from user");
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        long[] candidates = new long[1];
+        for (int from = 1; from <= users; from += batchSize) {
+            int start = from;
+            int size = Math.min(batchSize, users - from + 1);
+            jdbcTemplate.batchUpdate("insert into user(id, email, name, password, social_type, status, grade, created_date, updated_date)" +
+                    " values (?, ?, ?, ?, ?, ?, ?, ?, ?)", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long id = start + i;
+                    boolean active = random.nextDouble() < activeRatio;
+                    boolean candidate = random.nextDouble() < candidateRatio;
+                    // 대상이면 1 ~ 3년 전, 아니면 최근 1년 이내(하루 여유)에 수정된 회원
+                    LocalDateTime updatedDate = candidate
+                            ? now.minusYears(1).minusDays(1 + random.nextInt(730))
+                            : now.minusDays(1 + random.nextInt(363));
+                    if (active && candidate) {
+                        candidates[0]++;
+                    }
+                    ps.setLong(1, id);
+                    ps.setString(2, "user" + id + "@test.com");
+                    ps.setString(3, "user" + id);
+                    ps.setString(4, "password" + id);
+                    ps.setString(5, SOCIAL_TYPES[random.nextInt(SOCIAL_TYPES.length)].name());
+                    ps.setString(6, (active ? UserStatus.ACTIVE : UserStatus.INACTIVE).name());
+                    ps.setString(7, nextGrade(random).name());
+                    ps.setTimestamp(8, Timestamp.valueOf(updatedDate.minusYears(1)));
+                    ps.setTimestamp(9, Timestamp.valueOf(updatedDate));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+        return candidates[0];
+    }
+
+    private String databaseUrl() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+    }
+
+    private static boolean isInMemory(String url) {
+        return url != null && (url.startsWith("jdbc:h2:mem:") || url.startsWith("jdbc:hsqldb:mem:") || url.startsWith("jdbc:derby:memory:"));
+    }
+
+    private Grade nextGrade(Random random) {
+        double total = 0;
+        for (double weight : gradeWeights) {
+            total += weight;
+        }
+        double value = random.nextDouble() * total;
+        for (int i = 0; i < GRADES.length - 1; i++) {
+            value -= gradeWeights[i];
+            if (value < 0) {
+                return GRADES[i];
+            }
+        }
+        return GRADES[GRADES.length - 1];
+    }
+}
@@ -0,0 +1,21 @@
+-- InactiveUserStatementBudgetTest용 기존 운영 DB (마이그레이션 전, user 테이블과 휴면 대상 10명만 있다.)
+-- H2 URL의 INIT으로 연결할 때마다 실행되므로 여러 번 실행해도 결과가 같아야 한다.
+create table if not exists user (
+    id bigint auto_increment primary key,
+    name varchar(255),
+    password varchar(255),
+    email varchar(255),
+    created_date timestamp,
+    updated_date timestamp,
+    status varchar(255),
+    grade varchar(255),
+    principal varchar(255),
+    social_type varchar(255)
+);
+
+insert into user (id, email, name, password, social_type, status, grade, created_date, updated_date)
+select x, 'test@test.com', concat('test', x - 1000), concat('test', x - 1000), 'FACEBOOK', 'ACTIVE',
+       case when x <= 1003 then 'VIP' when x <= 1006 then 'GOLD' else 'FAMILY' end,
+       '2016-03-01 00:00:00', '2018-03-01 00:00:00'
+from system_range(1001, 1010)
+where not exists (select 1 from user);
@@ -0,0 +1,10 @@
+-- db/mysql/inactive-notice-history.sql의 H2 버전
+create table if not exists inactive_notice_history (
+    notice_key varchar(255) not null,
+    user_id bigint,
+    job_instance_id bigint,
+    sent_date timestamp,
+    primary key (notice_key)
+);
+
+create index if not exists idx_inactive_notice_history_user_job on inactive_notice_history (user_id, job_instance_id);
@@ -0,0 +1,4 @@
+-- db/mysql/user-indexes.sql의 H2 버전
+create index if not exists idx_user_status_id_updated_date on user (status, id, updated_date);
+create index if not exists idx_user_status_grade_updated_date on user (status, grade, updated_date, id);
+create index if not exists idx_user_status_updated_date on user (status, updated_date, id);
@@ -0,0 +1,2 @@
+-- db/mysql/user-seq.sql의 H2 버전, H2는 시퀀스를 지원하므로 user_seq 시퀀스를 만든다.
+create sequence if not exists user_seq start with 1110 increment by 100;